@@ -15,11 +15,14 @@ import com.ezasm.gui.util.EditorTheme;
 import com.ezasm.gui.util.WindowCloseListener;
 import com.ezasm.instructions.implementation.TerminalInstructions;
 import com.ezasm.parsing.Lexer;
+import com.ezasm.parsing.Line;
 import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.SimulatorSnapshot;
+import com.ezasm.simulation.event.SimulatorEvent;
 import com.ezasm.parsing.ParseException;
 import com.ezasm.simulation.Registers;
 import com.ezasm.util.FileIO;
-import com.ezasm.util.RandomAccessFileStream;
+import com.ezasm.util.MappedFileStream;
 import com.ezasm.util.SystemStreams;
 import com.ezasm.gui.settings.AutoSave;
 
@@ -30,11 +33,15 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.List;
 
 import static com.ezasm.gui.util.DialogFactory.promptWarningDialog;
 
@@ -139,7 +146,13 @@ public class Window {
      */
     public void setFileInputStream(File inputFile) {
         try {
-            inputStream = new RandomAccessFileStream(inputFile);
+            // Pipes and other special files cannot be mapped, so only regular files are read through a mapping
+            InputStream opened = Files.isRegularFile(inputFile.toPath()) ? new MappedFileStream(inputFile)
+                    : new FileInputStream(inputFile);
+            if (inputStream != TerminalInstructions.DEFAULT_INPUT_STREAM) {
+                inputStream.close();
+            }
+            inputStream = opened;
         } catch (IOException e) {
             promptWarningDialog("Error Reading File",
                     String.format("There was an error reading from '%s'\nOperation cancelled", inputFile.getName()));
@@ -225,6 +238,7 @@ public class Window {
         editors = new EditorTabbedPane();
         toolbar = ToolbarFactory.makeToolbar();
         registerTable = new RegisterTable(simulator.getRegisters());
+        simulator.getEvents().addListener(registerTable, EnumSet.of(SimulatorEvent.REGISTER_CHANGED));
 
         console = new Console();
         setInputStream(console.getInputStream());
@@ -235,7 +249,9 @@ public class Window {
             System.setErr(new PrintStream(console.getErrorStream()));
         }
 
-        memoryViewerPanel = new MemoryViewerPanel(simulator.getMemory());
+        memoryViewerPanel = new MemoryViewerPanel(simulator);
+        simulator.publishSnapshot();
+        updateGraphicInformation();
 
         tools = new FixedTabbedPane();
         tools.addTab(console, null, "Console", "Your Console");
@@ -314,6 +330,7 @@ public class Window {
             editor.resizeTabSize(config.getTabSize());
         }
         SimulatorGuiActions.setInstructionDelayMS(config.getSimulationDelay());
+        console.setScrollback(config.getConsoleScrollback());
 
         autoSave.toggleRunning(config.getAutoSaveSelected(), config.getAutoSaveInterval());
     }
@@ -355,11 +372,13 @@ public class Window {
     }
 
     /**
-     * Updates graphical information based on simulation attributes.
+     * Updates graphical information based on the most recently published snapshot of the simulator. Must be called on
+     * the event dispatch thread.
      */
     public void updateGraphicInformation() {
-        registerTable.update();
-        memoryViewerPanel.update();
+        SimulatorSnapshot snapshot = simulator.getSnapshot();
+        registerTable.update(snapshot);
+        memoryViewerPanel.update(snapshot);
     }
 
     /**
@@ -405,12 +424,19 @@ public class Window {
      */
     public void parseText() throws ParseException {
         simulator.resetAll();
-        registerTable.update();
+        simulator.publishSnapshot();
+        updateGraphicInformation();
+
+        // Reuse the background parse of the editor if it is up-to-date
+        List<Line> lines = getEditor().getParsedLines();
+        if (lines == null) {
+            lines = Lexer.parseLines(getEditor().getText());
+        }
 
         if (getEditor().isFileAnonymous()) {
-            simulator.addAnonymousLines(Lexer.parseLines(getEditor().getText()), getEditor().getOpenFilePath());
+            simulator.addAnonymousLines(lines, getEditor().getOpenFilePath());
         } else {
-            simulator.addLines(Lexer.parseLines(getEditor().getText()), new File(getEditor().getOpenFilePath()));
+            simulator.addLines(lines, new File(getEditor().getOpenFilePath()));
         }
         instance.getEditor().resetHighlighter();
     }
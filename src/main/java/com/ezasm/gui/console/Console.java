@@ -75,6 +75,33 @@ public class Console extends JPanel implements IThemeable {
         textArea.writeTextWithColor(text, outputStreamColor);
     }
 
+    /**
+     * Writes a character as if it were going to System.out.
+     *
+     * @param c the character to write.
+     */
+    public void writeCharFromOutputStream(char c) {
+        textArea.writeCharWithColor(c, outputStreamColor);
+    }
+
+    /**
+     * Writes a character as if it were going to System.err.
+     *
+     * @param c the character to write.
+     */
+    public void writeCharFromErrorStream(char c) {
+        textArea.writeCharWithColor(c, errorStreamColor);
+    }
+
+    /**
+     * Sets the maximum number of characters kept in the console. The oldest lines are removed beyond this.
+     *
+     * @param characters the maximum number of characters kept in the console.
+     */
+    public void setScrollback(int characters) {
+        textArea.setScrollback(characters);
+    }
+
     /**
      * Writes text as if it were going to System.err.
      *
@@ -28,7 +28,7 @@ public class ConsoleErrorOutputStream extends OutputStream {
      */
     @Override
     public void write(int b) throws IOException {
-        console.writeTextFromErrorStream(Character.toString(b));
+        console.writeCharFromErrorStream((char) (b & 0xFF));
     }
 
     /**
@@ -53,10 +53,9 @@ public class ConsoleErrorOutputStream extends OutputStream {
      */
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        StringBuilder toWrite = new StringBuilder();
+        StringBuilder toWrite = new StringBuilder(len);
         for (int i = 0; i < len; ++i) {
-            byte data = b[off + i];
-            toWrite.append(Character.toString(data));
+            toWrite.append((char) (b[off + i] & 0xFF));
         }
         console.writeTextFromErrorStream(toWrite.toString());
     }
@@ -2,69 +2,114 @@ package com.ezasm.gui.console;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Represents the input stream which reads text from the console.
+ * Represents the input stream which reads text from the console. Text entered in the console is handed to the reading
+ * thread through a buffer guarded by a lock; a reader waiting for input is woken as soon as text is added.
  */
 public class ConsoleInputStream extends InputStream {
 
-    private StringBuffer buffer;
+    private final ReentrantLock lock;
+    private final Condition inputAvailable;
+    private final StringBuilder buffer;
     private int bufferIndex;
 
-    private static final long DELAY_MS = 50;
-
     /**
      * Constructs the input stream from the console.
      */
     public ConsoleInputStream() {
-        this.buffer = new StringBuffer();
+        this.lock = new ReentrantLock();
+        this.inputAvailable = lock.newCondition();
+        this.buffer = new StringBuilder();
         this.bufferIndex = 0;
     }
 
     /**
-     * Add characters typed in the console to the buffer of characters in the input stream.
+     * Add characters typed in the console to the buffer of characters in the input stream and wakes any waiting reader.
      *
      * @param string the characters input.
      */
     public void addToBuffer(String string) {
-        buffer.append(string);
+        lock.lock();
+        try {
+            buffer.append(string);
+            inputAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Resets the internal buffer and hence the input stream.
      */
     public void resetBuffer() {
-        buffer = new StringBuffer();
-        bufferIndex = 0;
+        lock.lock();
+        try {
+            buffer.setLength(0);
+            bufferIndex = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until there is at least one unread character in the buffer. Must hold the lock.
+     *
+     * @return true if there is a character to read, false if the thread was interrupted while waiting.
+     */
+    private boolean awaitInput() {
+        while (bufferIndex >= buffer.length()) {
+            try {
+                inputAvailable.await();
+            } catch (InterruptedException e) {
+                // Leave the interrupt flag set so that the simulation notices it
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the characters which have been read from the buffer once all of them have been read. Must hold the lock.
+     */
+    private void compactBuffer() {
+        if (bufferIndex == buffer.length()) {
+            buffer.setLength(0);
+            bufferIndex = 0;
+        }
     }
 
     /**
-     * Attempts to read a character from the input buffer until it is able to. This creates functionality where the
-     * program will wait to continue until an input is given. The wait in between checks is defined in DELAY_MS.
+     * Reads a character from the input buffer, waiting until one is entered if there are none. This creates
+     * functionality where the program will wait to continue until an input is given.
      *
-     * @return the character read.
+     * @return the character read, or 0 if the thread was interrupted while waiting.
      * @throws IOException if there is an error reading from the buffer.
      */
     @Override
     public int read() throws IOException {
-        while (!Thread.currentThread().isInterrupted()) {
-            try {
-                char c = buffer.charAt(bufferIndex);
-                ++bufferIndex;
-                return c;
-            } catch (StringIndexOutOfBoundsException ignored) {
-                LockSupport.parkNanos(DELAY_MS * 1_000_000);
+        lock.lock();
+        try {
+            if (!awaitInput()) {
+                buffer.setLength(0);
+                bufferIndex = 0;
+                return 0;
             }
+            char c = buffer.charAt(bufferIndex);
+            ++bufferIndex;
+            compactBuffer();
+            return c;
+        } finally {
+            lock.unlock();
         }
-        resetBuffer();
-        return 0;
     }
 
     /**
-     * Reads len bytes into the given array starting at the position off. Attempts to read a character from the input
-     * buffer until it is able to. This creates functionality where the program will wait to continue until an input is
-     * given. The wait in between checks is defined in DELAY_MS.
+     * Reads up to len bytes into the given array starting at the position off. Waits until at least one character is
+     * entered if there are none, then reads as many of the available characters as fit.
      *
      * @param b   the buffer into which the data is read.
      * @param off the start offset in array {@code b} at which the data is written.
@@ -74,24 +119,28 @@ public class ConsoleInputStream extends InputStream {
      */
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        int i = 0;
-        while (i < len && !Thread.currentThread().isInterrupted()) {
-            try {
-                for (; i < len; ++i) {
-                    b[off + i] = (byte) buffer.charAt(i + bufferIndex);
-                    ++bufferIndex;
-                }
-            } catch (Exception e) {
-                LockSupport.parkNanos(DELAY_MS * 1_000_000 * 10);
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            if (!awaitInput()) {
+                return 0;
             }
+            int count = Math.min(len, buffer.length() - bufferIndex);
+            for (int i = 0; i < count; ++i) {
+                b[off + i] = (byte) buffer.charAt(bufferIndex + i);
+            }
+            bufferIndex += count;
+            compactBuffer();
+            return count;
+        } finally {
+            lock.unlock();
         }
-        return i;
     }
 
     /**
-     * Reads len bytes into the given array starting at the position off. Attempts to read a character from the input
-     * buffer until it is able to. This creates functionality where the program will wait to continue until an input is
-     * given. The wait in between checks is defined in DELAY_MS.
+     * Reads up to len bytes into the given array. Waits until at least one character is entered if there are none.
      *
      * @param b the buffer into which the data is read.
      * @return the number of characters read.
@@ -103,34 +152,50 @@ public class ConsoleInputStream extends InputStream {
     }
 
     /**
-     * Reads len bytes into the given array starting at the position off. Attempts to read a character from the input
-     * buffer until it is able to. This creates functionality where the program will wait to continue until an input is
-     * given. The wait in between checks is defined in DELAY_MS.
+     * Reads exactly len bytes into the given array starting at the position off, waiting for more characters to be
+     * entered as needed. Stops early if the thread is interrupted.
      *
      * @param b   the buffer into which the data is read.
      * @param off the start offset in array {@code b} at which the data is written.
-     * @param len the maximum number of bytes to read.
+     * @param len the number of bytes to read.
      * @return the number of characters read.
      * @throws IOException if there is an error reading from the buffer.
      */
     @Override
     public int readNBytes(byte[] b, int off, int len) throws IOException {
-        return read(b, off, len);
+        int read = 0;
+        while (read < len && !Thread.currentThread().isInterrupted()) {
+            read += read(b, off + read, len - read);
+        }
+        return read;
     }
 
     /**
-     * Reads bytes up to the length given, then returns the created array. Attempts to read a character from the input
-     * buffer until it is able to. This creates functionality where the program will wait to continue until an input is
-     * given. The wait in between checks is defined in DELAY_MS.
+     * Reads exactly len bytes, waiting for more characters to be entered as needed, then returns the created array.
      *
-     * @param len the maximum number of bytes to read.
+     * @param len the number of bytes to read.
      * @return the array of characters read.
      * @throws IOException if there is an error reading from the buffer.
      */
     @Override
     public byte[] readNBytes(int len) throws IOException {
         byte[] b = new byte[len];
-        read(b);
+        readNBytes(b, 0, len);
         return b;
     }
+
+    /**
+     * Gets the number of characters which have been entered but not yet read.
+     *
+     * @return the number of characters which can be read without waiting.
+     */
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            return buffer.length() - bufferIndex;
+        } finally {
+            lock.unlock();
+        }
+    }
 }
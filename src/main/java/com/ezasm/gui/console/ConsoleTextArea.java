@@ -2,7 +2,9 @@ package com.ezasm.gui.console;
 
 import com.ezasm.gui.util.IThemeable;
 import com.ezasm.gui.util.EditorTheme;
+import com.ezasm.gui.settings.Config;
 import com.ezasm.gui.util.NullOutputStream;
+import com.ezasm.gui.util.RefreshScheduler;
 
 import javax.swing.*;
 import javax.swing.text.*;
@@ -10,6 +12,7 @@ import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.PrintStream;
+import java.util.ArrayDeque;
 
 /**
  * Represents a GUI console text box which a user will type into. To be used by the Console. Patches an issue with
@@ -18,10 +21,34 @@ import java.io.PrintStream;
  */
 public class ConsoleTextArea extends JTextPane implements IThemeable {
 
+    /**
+     * The maximum number of times per second that pending output is inserted into the document.
+     */
+    private static final int OUTPUT_FLUSHES_PER_SECOND = 20;
+
+    /**
+     * The number of characters searched past the excess text for the end of a line when trimming old output.
+     */
+    private static final int TRIM_LINE_SEARCH = 4096;
+
+    /**
+     * A run of pending output text of a single color.
+     *
+     * @param text  the text of the run.
+     * @param color the color of the text.
+     */
+    private record PendingOutput(StringBuilder text, Color color) {
+    }
+
     private final Console console;
     private Color userInputColor;
     private int fixedTextEnd;
 
+    private final RefreshScheduler outputFlusher;
+    private final ArrayDeque<PendingOutput> pendingOutput;
+    private int pendingLength;
+    private volatile int scrollback;
+
     /**
      * Constructs the text area to be used in a Console.
      */
@@ -30,6 +57,10 @@ public class ConsoleTextArea extends JTextPane implements IThemeable {
         this.console = console;
         this.userInputColor = Color.BLACK;
         this.fixedTextEnd = 0;
+        this.outputFlusher = new RefreshScheduler(OUTPUT_FLUSHES_PER_SECOND, this::flushOutput);
+        this.pendingOutput = new ArrayDeque<>();
+        this.pendingLength = 0;
+        this.scrollback = Integer.parseInt(Config.DEFAULT_CONSOLE_SCROLLBACK);
         configureKeyListener();
     }
 
@@ -69,10 +100,23 @@ public class ConsoleTextArea extends JTextPane implements IThemeable {
      * Resets the content in the console and its streams.
      */
     public void reset() {
+        synchronized (pendingOutput) {
+            pendingOutput.clear();
+            pendingLength = 0;
+        }
         setText("");
         fixedTextEnd = 0;
     }
 
+    /**
+     * Sets the maximum number of characters kept in the console. The oldest lines are removed beyond this.
+     *
+     * @param characters the maximum number of characters kept in the console.
+     */
+    public void setScrollback(int characters) {
+        this.scrollback = characters;
+    }
+
     /**
      * Gets the string remaining after the fixed text.
      *
@@ -102,20 +146,113 @@ public class ConsoleTextArea extends JTextPane implements IThemeable {
     }
 
     /**
-     * Writes text to the console with a given color.
+     * Writes text to the console with a given color. The text is buffered and inserted into the console along with any
+     * other pending output at most a fixed number of times per second. May be called from any thread.
      *
      * @param newText the text to write.
      * @param color   the color of the text.
      */
     public void writeTextWithColor(String newText, Color color) {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                getDocument().insertString(fixedTextEnd, newText, getColoredAttributeSet(color));
-                fixedTextEnd += newText.length();
-                setCaretPosition(getText().length());
-            } catch (BadLocationException | IllegalArgumentException ignored) {
+        synchronized (pendingOutput) {
+            pendingRun(color).text().append(newText);
+            pendingLength += newText.length();
+            trimPendingOutput();
+        }
+        outputFlusher.requestRefresh();
+    }
+
+    /**
+     * Writes a character to the console with a given color. The character is buffered as in
+     * {@link #writeTextWithColor(String, Color)}.
+     *
+     * @param c     the character to write.
+     * @param color the color of the character.
+     */
+    public void writeCharWithColor(char c, Color color) {
+        synchronized (pendingOutput) {
+            pendingRun(color).text().append(c);
+            ++pendingLength;
+            trimPendingOutput();
+        }
+        outputFlusher.requestRefresh();
+    }
+
+    /**
+     * Gets the run of pending output to append text of the given color to. Must hold the lock on the pending output.
+     *
+     * @param color the color of the text.
+     * @return the run to append the text to.
+     */
+    private PendingOutput pendingRun(Color color) {
+        PendingOutput last = pendingOutput.peekLast();
+        if (last == null || !last.color().equals(color)) {
+            last = new PendingOutput(new StringBuilder(), color);
+            pendingOutput.addLast(last);
+        }
+        return last;
+    }
+
+    /**
+     * Discards the oldest pending output which would be trimmed from the console anyway. Must hold the lock on the
+     * pending output.
+     */
+    private void trimPendingOutput() {
+        int excess = pendingLength - scrollback;
+        while (excess > 0) {
+            PendingOutput first = pendingOutput.peekFirst();
+            int removed = Math.min(excess, first.text().length());
+            if (removed == first.text().length() && pendingOutput.size() > 1) {
+                pendingOutput.removeFirst();
+            } else {
+                first.text().delete(0, removed);
             }
-        });
+            pendingLength -= removed;
+            excess -= removed;
+        }
+    }
+
+    /**
+     * Inserts all pending output into the console, then removes the oldest lines of output beyond the scrollback. Runs
+     * on the event dispatch thread.
+     */
+    private void flushOutput() {
+        PendingOutput[] runs;
+        synchronized (pendingOutput) {
+            runs = pendingOutput.toArray(new PendingOutput[0]);
+            pendingOutput.clear();
+            pendingLength = 0;
+        }
+        Document document = getDocument();
+        try {
+            for (PendingOutput run : runs) {
+                document.insertString(fixedTextEnd, run.text().toString(), getColoredAttributeSet(run.color()));
+                fixedTextEnd += run.text().length();
+            }
+            trimDocument(document);
+            setCaretPosition(document.getLength());
+        } catch (BadLocationException | IllegalArgumentException ignored) {
+        }
+    }
+
+    /**
+     * Removes the oldest lines of output from the document such that it is no longer than the scrollback. Never removes
+     * input which the user is still typing.
+     *
+     * @param document the document of this text area.
+     * @throws BadLocationException if the document changed unexpectedly.
+     */
+    private void trimDocument(Document document) throws BadLocationException {
+        int excess = document.getLength() - scrollback;
+        if (excess <= 0) {
+            return;
+        }
+        // Prefer to remove whole lines by cutting after the next newline
+        String search = document.getText(excess, Math.min(TRIM_LINE_SEARCH, document.getLength() - excess));
+        int newline = search.indexOf('\n');
+        int cut = newline >= 0 ? excess + newline + 1 : excess;
+        cut = Math.min(cut, fixedTextEnd);
+        document.remove(0, cut);
+        fixedTextEnd -= cut;
     }
 
     /**
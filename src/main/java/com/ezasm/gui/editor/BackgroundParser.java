@@ -0,0 +1,188 @@
+package com.ezasm.gui.editor;
+
+import com.ezasm.parsing.Lexer;
+import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ParseException;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.parser.AbstractParser;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parses the text of an editor in the background shortly after the user stops typing. Lines whose text has not changed
+ * since the previous parse are not lexed again. Keeps the most recent parsed program so that starting the program does
+ * not need to parse the text again, and reports the first parse error to the text area as an inline notice.
+ */
+public class BackgroundParser extends AbstractParser implements DocumentListener {
+
+    /**
+     * The number of milliseconds to wait after the last edit before parsing.
+     */
+    private static final int DEBOUNCE_MS = 300;
+
+    /**
+     * The thread shared by all editors on which parsing happens.
+     */
+    private static final ExecutorService parseThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "EzASM background parser");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The result of parsing one version of the text.
+     *
+     * @param version   the version of the text which was parsed.
+     * @param lines     the lines parsed, or null if there was an error.
+     * @param exception the first error encountered, or null if there was none.
+     * @param errorLine the zero-indexed line on which the error occurred, or -1 if there was none.
+     */
+    private record ParsedProgram(long version, List<Line> lines, ParseException exception, int errorLine) {
+    }
+
+    private final RSyntaxTextArea textArea;
+    private final Timer debounce;
+
+    /**
+     * The version of the text in the editor; incremented on each edit. Only accessed on the event dispatch thread.
+     */
+    private long version;
+    private volatile ParsedProgram latest;
+
+    /**
+     * The lines parsed from each line of text in the previous parse. Only accessed on the parse thread.
+     */
+    private Map<String, Line> previousLines;
+
+    /**
+     * Constructs a background parser for the given text area. The parser still needs to be added to the text area as
+     * both a document listener and a parser.
+     *
+     * @param textArea the text area whose text will be parsed.
+     */
+    public BackgroundParser(RSyntaxTextArea textArea) {
+        this.textArea = textArea;
+        this.debounce = new Timer(DEBOUNCE_MS, e -> schedule());
+        this.debounce.setRepeats(false);
+        this.version = 0;
+        this.latest = null;
+        this.previousLines = new HashMap<>();
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+        // Attribute changes do not change the text
+    }
+
+    /**
+     * Invalidates the current parse result and restarts the wait before parsing again.
+     */
+    private void textChanged() {
+        ++version;
+        debounce.restart();
+    }
+
+    /**
+     * Takes a snapshot of the text on the event dispatch thread and parses it on the parse thread.
+     */
+    private void schedule() {
+        long snapshotVersion = version;
+        String text = textArea.getText();
+        parseThread.execute(() -> {
+            latest = parse(text, snapshotVersion);
+            SwingUtilities.invokeLater(() -> textArea.forceReparsing(this));
+        });
+    }
+
+    /**
+     * Parses the given text, reusing the lines parsed from any line of text that was present in the previous parse.
+     * Gives the same result as {@link Lexer#parseLines(String)}.
+     *
+     * @param text    the text to parse.
+     * @param version the version of the text.
+     * @return the result of parsing the text.
+     */
+    private ParsedProgram parse(String text, long version) {
+        String[] linesRead = text.split("\n\r?");
+        List<Line> lines = new ArrayList<>();
+        Map<String, Line> currentLines = new HashMap<>();
+
+        for (int i = 0; i < linesRead.length; ++i) {
+            Line line = previousLines.get(linesRead[i]);
+            if (line == null) {
+                try {
+                    line = Lexer.parseLine(linesRead[i], i);
+                } catch (ParseException e) {
+                    return new ParsedProgram(version, null, e, i);
+                }
+            }
+            if (line != null) {
+                currentLines.put(linesRead[i], line);
+                lines.add(line);
+            }
+        }
+
+        previousLines = currentLines;
+        return new ParsedProgram(version, Collections.unmodifiableList(lines), null, -1);
+    }
+
+    /**
+     * Gets the lines parsed from the current text of the editor if the background parse has caught up with the latest
+     * edit. Must be called on the event dispatch thread.
+     *
+     * @return the lines parsed from the current text, or null if the current text has not been parsed yet.
+     * @throws ParseException if the current text was parsed and contains an error.
+     */
+    public List<Line> getLinesIfCurrent() throws ParseException {
+        ParsedProgram program = latest;
+        if (program == null || program.version() != version) {
+            return null;
+        }
+        if (program.exception() != null) {
+            throw program.exception();
+        }
+        return program.lines();
+    }
+
+    /**
+     * Reports the error from the latest background parse to the text area, if it is still current. Called by the text
+     * area on the event dispatch thread; this does not parse anything itself.
+     *
+     * @param doc   the document to parse.
+     * @param style the syntax style of the document.
+     * @return the notices for the document.
+     */
+    @Override
+    public ParseResult parse(RSyntaxDocument doc, String style) {
+        DefaultParseResult result = new DefaultParseResult(this);
+        ParsedProgram program = latest;
+        if (program != null && program.version() == version && program.exception() != null) {
+            result.addNotice(new DefaultParserNotice(this, program.exception().getMessage(), program.errorLine()));
+        }
+        return result;
+    }
+
+}
@@ -10,12 +10,15 @@ import com.ezasm.gui.tabbedpane.JClosableComponent;
 import com.ezasm.gui.util.EditorTheme;
 import com.ezasm.gui.util.IThemeable;
 import com.ezasm.gui.util.PatchedRSyntaxTextArea;
+import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ParseException;
 import org.fife.ui.rsyntaxtextarea.*;
 import org.fife.ui.rtextarea.RTextScrollPane;
 
 import java.awt.*;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import static com.ezasm.gui.util.EditorTheme.applyFontThemeBorderless;
 
@@ -30,6 +33,7 @@ public class EzEditorPane extends JClosableComponent implements IThemeable {
 
     private final RTextScrollPane scrollPane;
     private LineHighlighter highlighter;
+    private final BackgroundParser backgroundParser;
     private String openFilePath;
     private boolean fileSaved;
 
@@ -53,6 +57,10 @@ public class EzEditorPane extends JClosableComponent implements IThemeable {
         textArea.setCodeFoldingEnabled(false);
         textArea.getDocument().addDocumentListener(new EditorDocumentListener());
 
+        backgroundParser = new BackgroundParser(textArea);
+        textArea.getDocument().addDocumentListener(backgroundParser);
+        textArea.addParser(backgroundParser);
+
         openFilePath = EditorTabbedPane.NEW_FILE_PREFIX;
         fileSaved = true;
 
@@ -188,6 +196,17 @@ public class EzEditorPane extends JClosableComponent implements IThemeable {
         return textArea.getText();
     }
 
+    /**
+     * Gets the lines parsed in the background from the text content of the text editor, if the text has not changed
+     * since it was last parsed.
+     *
+     * @return the lines parsed from the text content, or null if the text content has not been parsed yet.
+     * @throws ParseException if the text content has been parsed and contains an error.
+     */
+    public List<Line> getParsedLines() throws ParseException {
+        return backgroundParser.getLinesIfCurrent();
+    }
+
     /**
      * Sets the text of the editor to the given content.
      *
@@ -2,8 +2,8 @@ package com.ezasm.gui.editor;
 
 import com.ezasm.gui.util.PatchedRSyntaxTextArea;
 import com.ezasm.parsing.Lexer;
-import com.ezasm.simulation.Registers;
 import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.SimulatorSnapshot;
 import com.ezasm.gui.Window;
 
 import javax.swing.text.*;
@@ -52,13 +52,15 @@ public class LineHighlighter extends DefaultHighlighter.DefaultHighlightPainter
     }
 
     /**
-     * For a given text component, highlight a certain line (ignoring non program lines).
+     * For a given text component, highlight the line at the program counter of the most recent snapshot of the
+     * simulator (ignoring non program lines).
      *
      * @param simulator the program simulator.
      */
     public void highlight(Simulator simulator) {
-        int lineNumber = (int) simulator.getRegisters().getRegister(Registers.PC).getLong();
-        int fid = (int) simulator.getRegisters().getRegister(Registers.FID).getLong();
+        SimulatorSnapshot snapshot = simulator.getSnapshot();
+        int lineNumber = (int) snapshot.pc();
+        int fid = (int) snapshot.fid();
 
         String currentFile = simulator.getFile(fid);
         int currentFileIndex = Window.getInstance().getEditorPanes().indexOfFile(currentFile);
@@ -74,6 +76,9 @@ public class LineHighlighter extends DefaultHighlighter.DefaultHighlightPainter
         if (!lineStartOffsets.containsKey(currentFile)) {
             parseFileLines(Window.getInstance().getEditorPanes().getComponentAt(currentFileIndex));
         }
+        if (lineNumber < 0 || lineNumber >= lineStartOffsets.get(currentFile).size()) { // past the end of the file
+            return;
+        }
 
         Window.getInstance().getEditorPanes().switchToFile(currentFile);
         PatchedRSyntaxTextArea textArea = Window.getInstance().getEditor().getTextArea();
@@ -36,6 +36,7 @@ public class Config {
     public static final String FONT_FAMILY = "FONT_FAMILY";
     public static final String AUTO_SAVE_INTERVAL = "AUTO_SAVE_INTERVAL";
     public static final String AUTO_SAVE_SELECTED = "AUTO_SAVE_SELECTED";
+    public static final String CONSOLE_SCROLLBACK = "CONSOLE_SCROLLBACK";
 
     // All default settings
     public static final String DEFAULT_FONT_SIZE = "16";
@@ -43,6 +44,7 @@ public class Config {
     public static final String DEFAULT_AUTO_SAVE_SELECTED = "false";
     public static final String DEFAULT_AUTO_SAVE_INTERVAL = "10";
     public static final String DEFAULT_SIMULATION_DELAY = "250";
+    public static final String DEFAULT_CONSOLE_SCROLLBACK = "1000000";
     public static final String DEFAULT_THEME = EditorTheme.Light.name();
     public static final String DEFAULT_FONT = "JetBrains Mono"; // unclear if this will be allowed to change
 
@@ -50,13 +52,15 @@ public class Config {
             entry(TAB_SIZE, DEFAULT_TAB_SIZE), entry(SIMULATION_DELAY, DEFAULT_SIMULATION_DELAY),
             entry(THEME, DEFAULT_THEME), entry(FONT_FAMILY, DEFAULT_FONT),
             entry(AUTO_SAVE_INTERVAL, DEFAULT_AUTO_SAVE_INTERVAL),
-            entry(AUTO_SAVE_SELECTED, DEFAULT_AUTO_SAVE_SELECTED));
+            entry(AUTO_SAVE_SELECTED, DEFAULT_AUTO_SAVE_SELECTED),
+            entry(CONSOLE_SCROLLBACK, DEFAULT_CONSOLE_SCROLLBACK));
 
     private final Map<String, Function<Config, Object>> propertyGetters = Map.ofEntries(
             entry(FONT_SIZE, Config::getFontSize), entry(TAB_SIZE, Config::getTabSize),
             entry(SIMULATION_DELAY, Config::getSimulationDelay), entry(THEME, Config::getTheme),
             entry(FONT_FAMILY, Config::getFont), entry(AUTO_SAVE_INTERVAL, Config::getAutoSaveInterval),
-            entry(AUTO_SAVE_SELECTED, Config::getAutoSaveSelected));
+            entry(AUTO_SAVE_SELECTED, Config::getAutoSaveSelected),
+            entry(CONSOLE_SCROLLBACK, Config::getConsoleScrollback));
 
     // Possible themes
     private static final String[] THEME_ARRAY = { EditorTheme.Light.name(), EditorTheme.Dracula.name(),
@@ -84,6 +88,7 @@ public class Config {
             props.setProperty(TAB_SIZE, DEFAULT_TAB_SIZE);
             props.setProperty(AUTO_SAVE_INTERVAL, DEFAULT_AUTO_SAVE_INTERVAL);
             props.setProperty(AUTO_SAVE_SELECTED, DEFAULT_AUTO_SAVE_SELECTED);
+            props.setProperty(CONSOLE_SCROLLBACK, DEFAULT_CONSOLE_SCROLLBACK);
             saveChanges();
         }
     }
@@ -205,6 +210,28 @@ public class Config {
         props.setProperty(AUTO_SAVE_SELECTED, String.valueOf(enabled));
     }
 
+    /**
+     * Gets the maximum number of characters kept in the console.
+     *
+     * @return the maximum number of characters kept in the console.
+     */
+    public int getConsoleScrollback() {
+        int scrollback = Integer.parseInt(props.getProperty(CONSOLE_SCROLLBACK));
+        if (scrollback <= 0) {
+            throw new NumberFormatException("The console scrollback must be positive");
+        }
+        return scrollback;
+    }
+
+    /**
+     * Sets the maximum number of characters kept in the console.
+     *
+     * @param characters the maximum number of characters kept in the console.
+     */
+    public void setConsoleScrollback(int characters) {
+        props.setProperty(CONSOLE_SCROLLBACK, String.valueOf(characters));
+    }
+
     /**
      * Resets all settings in this configuration to their default values.
      */
@@ -215,6 +242,7 @@ public class Config {
         this.setTabSize(Integer.parseInt(DEFAULT_TAB_SIZE));
         this.setAutoSaveInterval(Integer.parseInt(DEFAULT_AUTO_SAVE_INTERVAL));
         this.setAutoSaveSelected(false);
+        this.setConsoleScrollback(Integer.parseInt(DEFAULT_CONSOLE_SCROLLBACK));
     }
 
     /**
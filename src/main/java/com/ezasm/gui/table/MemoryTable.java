@@ -3,6 +3,7 @@ package com.ezasm.gui.table;
 import com.ezasm.gui.util.EditorTheme;
 import com.ezasm.gui.util.IThemeable;
 import com.ezasm.simulation.Memory;
+import com.ezasm.simulation.SimulatorSnapshot;
 import com.ezasm.util.RawData;
 
 import javax.swing.*;
@@ -99,7 +100,7 @@ public class MemoryTable extends JPanel implements IThemeable {
     public void setOffset(int offset) {
         this.offset = offset;
         ((MemoryTableModel) table.getModel()).setOffset(offset);
-        update();
+        updateRowHeaders();
     }
 
     /**
@@ -112,11 +113,12 @@ public class MemoryTable extends JPanel implements IThemeable {
     }
 
     /**
-     * Forcibly refreshes the display of the table.
+     * Refreshes the display of the cells whose values have changed. Must be called on the event dispatch thread.
+     *
+     * @param snapshot the snapshot of the simulator to display.
      */
-    public void update() {
-        SwingUtilities.invokeLater(this::updateRowHeaders);
-        SwingUtilities.invokeLater(table::updateUI);
+    public void update(SimulatorSnapshot snapshot) {
+        ((MemoryTableModel) table.getModel()).update(snapshot);
     }
 
     /**
@@ -1,23 +1,30 @@
 package com.ezasm.gui.table;
 
 import com.ezasm.simulation.Memory;
-import com.ezasm.simulation.exception.ReadOutOfBoundsException;
+import com.ezasm.simulation.SimulatorSnapshot;
 import com.ezasm.util.RawData;
 
 import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
 
 /**
  * Helper model class to inform the MemoryTable's TableModel of how to construct and read from itself.
  */
 class MemoryTableModel extends AbstractTableModel {
 
-    private final Memory memory;
     private int offset;
     private int rows;
     private int cols;
 
     /**
-     * Models a table based a memory.
+     * The last value read from memory and its formatted hex string for each cell, indexed by row * columns + column.
+     */
+    private final RawData[] values;
+    private final String[] formatted;
+
+    /**
+     * Models a table based a memory. The values shown are only those of the snapshots given to
+     * {@link #update(SimulatorSnapshot)}.
      *
      * @param memory  the memory to base the table model off.
      * @param rows    the number of rows to include.
@@ -25,10 +32,11 @@ class MemoryTableModel extends AbstractTableModel {
      */
     public MemoryTableModel(Memory memory, int rows, int columns) {
         super();
-        this.memory = memory;
         this.rows = rows;
         this.cols = columns;
         this.offset = memory.currentHeapPointer();
+        this.values = new RawData[rows * columns];
+        this.formatted = new String[rows * columns];
     }
 
     /**
@@ -38,6 +46,33 @@ class MemoryTableModel extends AbstractTableModel {
      */
     public void setOffset(int offset) {
         this.offset = offset;
+        Arrays.fill(values, null);
+        Arrays.fill(formatted, null);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Reads the memory being viewed from the given snapshot and notifies the table of only the cells whose value has
+     * changed since the last snapshot. Cells outside the window of memory in the snapshot are left as they are.
+     *
+     * @param snapshot the snapshot to read the memory from.
+     */
+    public void update(SimulatorSnapshot snapshot) {
+        for (int row = 0; row < rows; ++row) {
+            for (int col = 0; col < cols; ++col) {
+                int cell = row * cols + col;
+                int address = offset + cell * Memory.getWordSize();
+                if (!snapshot.containsWord(address)) {
+                    continue;
+                }
+                RawData value = snapshot.readWord(address);
+                if (!value.equals(values[cell])) {
+                    values[cell] = value;
+                    formatted[cell] = null;
+                    fireTableCellUpdated(row, col);
+                }
+            }
+        }
     }
 
     /**
@@ -61,7 +96,8 @@ class MemoryTableModel extends AbstractTableModel {
     }
 
     /**
-     * Gets the memory display string for a specified cell.
+     * Gets the memory display string for a specified cell. The string is only formatted again after the value of the
+     * cell changes.
      *
      * @param row the row of the cell in question.
      * @param col the column of the cell in question.
@@ -69,11 +105,14 @@ class MemoryTableModel extends AbstractTableModel {
      */
     @Override
     public Object getValueAt(int row, int col) {
-        try {
-            return memory.read(offset + (row * cols + col) * Memory.getWordSize()).toHexString();
-        } catch (ReadOutOfBoundsException e) {
-            return RawData.emptyBytes(Memory.getWordSize()).toHexString();
+        int cell = row * cols + col;
+        if (values[cell] == null) {
+            values[cell] = RawData.emptyBytes(Memory.getWordSize());
+        }
+        if (formatted[cell] == null) {
+            formatted[cell] = values[cell].toHexString();
         }
+        return formatted[cell];
     }
 
     /**
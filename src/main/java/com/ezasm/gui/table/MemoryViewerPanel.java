@@ -1,12 +1,15 @@
 package com.ezasm.gui.table;
 
 import com.ezasm.gui.Window;
+import com.ezasm.gui.toolbar.SimulatorGuiActions;
 import com.ezasm.gui.ui.EzComboBoxUI;
 import com.ezasm.gui.util.EditorTheme;
 import com.ezasm.gui.util.spinner.HexFormatterFactory;
 import com.ezasm.gui.util.IThemeable;
 import com.ezasm.gui.util.spinner.SpinnerIntegerModel;
 import com.ezasm.simulation.Memory;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.SimulatorSnapshot;
 
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -22,6 +25,7 @@ import java.util.Vector;
  */
 public class MemoryViewerPanel extends JPanel implements IThemeable {
 
+    private final Simulator simulator;
     private final Memory memory;
 
     private final MemoryTable memoryTable;
@@ -44,13 +48,14 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
     private static final String BACK = " <--- ";
 
     /**
-     * Constructs a memory viewer panel bested on a given memory.
+     * Constructs a memory viewer panel bested on the memory of a given simulator.
      *
-     * @param memory the memory to be displayed by this element.
+     * @param simulator the simulator whose memory is to be displayed by this element.
      */
-    public MemoryViewerPanel(Memory memory) {
+    public MemoryViewerPanel(Simulator simulator) {
         super();
-        this.memory = memory;
+        this.simulator = simulator;
+        this.memory = simulator.getMemory();
         this.memoryTable = new MemoryTable(memory);
         this.controls = new JPanel();
         this.nameToAddress = new TreeMap<>() {
@@ -65,6 +70,7 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
         setLayout(new BorderLayout());
         add(controls, BorderLayout.NORTH);
         add(memoryTable, BorderLayout.CENTER);
+        simulator.setSnapshotMemoryWindow(memoryTable.getOffset(), numTableWords);
     }
 
     /**
@@ -145,10 +151,20 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
     }
 
     /**
-     * Forcibly refreshes the display of the table and UI elements.
+     * Refreshes the display of the table from the given snapshot. Must be called on the event dispatch thread.
+     *
+     * @param snapshot the snapshot of the simulator to display.
+     */
+    public void update(SimulatorSnapshot snapshot) {
+        memoryTable.update(snapshot);
+    }
+
+    /**
+     * Includes the newly viewed addresses in the snapshots of the simulator and requests that the view be refreshed.
      */
-    public void update() {
-        memoryTable.update();
+    private void viewChanged() {
+        simulator.setSnapshotMemoryWindow(memoryTable.getOffset(), numTableWords);
+        SimulatorGuiActions.refresh();
     }
 
     /**
@@ -157,7 +173,7 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
     private void seek() {
         if (isViewable((int) seekSpinner.getValue())) {
             memoryTable.setOffset((int) seekSpinner.getValue());
-            update();
+            viewChanged();
         }
     }
 
@@ -169,7 +185,7 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
         if (isViewable(newOffset)) {
             memoryTable.setOffset(newOffset);
             seekSpinner.setValue(newOffset);
-            update();
+            viewChanged();
         }
     }
 
@@ -181,7 +197,7 @@ public class MemoryViewerPanel extends JPanel implements IThemeable {
         if (isViewable(newOffset)) {
             memoryTable.setOffset(newOffset);
             seekSpinner.setValue(newOffset);
-            update();
+            viewChanged();
         }
     }
 
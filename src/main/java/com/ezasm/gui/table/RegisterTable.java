@@ -3,10 +3,13 @@ package com.ezasm.gui.table;
 import com.ezasm.gui.util.IThemeable;
 import com.ezasm.gui.util.EditorTheme;
 import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.SimulatorSnapshot;
+import com.ezasm.simulation.event.SimulatorListener;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.BitSet;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableCellRenderer;
@@ -14,11 +17,13 @@ import javax.swing.table.TableCellRenderer;
 /**
  * The GUI display table of the registers. Has a scroll pane embedded.
  */
-public class RegisterTable extends JPanel implements IThemeable {
+public class RegisterTable extends JPanel implements IThemeable, SimulatorListener {
 
     private final AlternatingColorTable table;
     private final JScrollPane scrollPane;
+    private final RegisterTableModel model;
     private final ArrayList<Integer> changedRegisterNumbers;
+    private final ArrayList<Integer> highlightedRegisterNumbers;
     private boolean reset = false;
     private Color cellForeground;
     private Color DefaultCellForeground;
@@ -33,9 +38,11 @@ public class RegisterTable extends JPanel implements IThemeable {
     public RegisterTable(Registers registers) {
         super();
         this.changedRegisterNumbers = new ArrayList<>();
+        this.highlightedRegisterNumbers = new ArrayList<>();
         this.table = new AlternatingColorTable(EditorTheme.Light);
         this.scrollPane = new JScrollPane(table);
-        table.setModel(new RegisterTableModel(registers));
+        this.model = new RegisterTableModel(registers);
+        table.setModel(model);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setPreferredSize(table.getPreferredSize());
@@ -46,6 +53,7 @@ public class RegisterTable extends JPanel implements IThemeable {
         setLayout(new BorderLayout());
         add(scrollPane);
         table.getTableHeader().setReorderingAllowed(false);
+        changeCellColor();
     }
 
     /**
@@ -57,7 +65,7 @@ public class RegisterTable extends JPanel implements IThemeable {
             public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
                     boolean hasFocus, int row, int col) {
                 final Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, col);
-                if (changedRegisterNumbers.contains(row)) {
+                if (highlightedRegisterNumbers.contains(row)) {
                     c.setForeground(cellForeground);
                 } else {
                     c.setForeground(DefaultCellForeground);
@@ -88,31 +96,69 @@ public class RegisterTable extends JPanel implements IThemeable {
     }
 
     /**
-     * Forcibly refreshes the display of the table
+     * Refreshes the display of the registers whose values or highlights have changed. Must be called on the event
+     * dispatch thread.
+     *
+     * @param snapshot the snapshot of the simulator to display.
      */
-    public void update() {
-        changeCellColor();
-        reset = true;
-        SwingUtilities.invokeLater(table::updateUI);
+    public void update(SimulatorSnapshot snapshot) {
+        model.update(snapshot);
+        ArrayList<Integer> registerNumbers;
+        synchronized (changedRegisterNumbers) {
+            registerNumbers = new ArrayList<>(changedRegisterNumbers);
+            reset = true;
+        }
+        updateHighlights(registerNumbers);
     }
 
     /**
-     * Tell the table which register changed, and reset the array when new value comes
+     * Replaces the highlighted registers with the given registers, redrawing only the names whose highlight changed.
      *
-     * @param number the index of changed register
+     * @param registerNumbers the numbers of the registers to highlight.
      */
-    public void addHighlightValue(int number) {
-        if (reset) {
-            changedRegisterNumbers.clear();
-            reset = false;
+    private void updateHighlights(ArrayList<Integer> registerNumbers) {
+        for (int number : highlightedRegisterNumbers) {
+            if (!registerNumbers.contains(number)) {
+                model.updateName(number);
+            }
+        }
+        for (int number : registerNumbers) {
+            if (!highlightedRegisterNumbers.contains(number)) {
+                model.updateName(number);
+            }
+        }
+        highlightedRegisterNumbers.clear();
+        highlightedRegisterNumbers.addAll(registerNumbers);
+    }
+
+    /**
+     * Tell the table which registers changed, and reset the array when new values come after the table was updated.
+     * Called on the simulation thread.
+     *
+     * @param registers the numbers of the changed registers.
+     */
+    @Override
+    public void registersChanged(BitSet registers) {
+        synchronized (changedRegisterNumbers) {
+            if (reset) {
+                changedRegisterNumbers.clear();
+                reset = false;
+            }
+            for (int number = registers.nextSetBit(0); number >= 0; number = registers.nextSetBit(number + 1)) {
+                if (!changedRegisterNumbers.contains(number)) {
+                    changedRegisterNumbers.add(number);
+                }
+            }
         }
-        this.changedRegisterNumbers.add(number);
     }
 
     /**
      * Removes the current highlights in the register table.
      */
     public void removeHighlightValue() {
-        this.changedRegisterNumbers.clear();
+        synchronized (changedRegisterNumbers) {
+            changedRegisterNumbers.clear();
+        }
+        updateHighlights(new ArrayList<>());
     }
 }
@@ -1,6 +1,7 @@
 package com.ezasm.gui.table;
 
 import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.SimulatorSnapshot;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -14,13 +15,45 @@ class RegisterTableModel extends AbstractTableModel {
     private final Registers registers;
 
     /**
-     * Models a table based on registers.
+     * The last value read from each register.
+     */
+    private final Long[] values;
+
+    /**
+     * Models a table based on registers. The values shown are only those of the snapshots given to
+     * {@link #update(SimulatorSnapshot)}.
      *
      * @param registers the registers to base the table model off.
      */
     public RegisterTableModel(Registers registers) {
         super();
         this.registers = registers;
+        this.values = new Long[registers.getRegisters().length];
+    }
+
+    /**
+     * Reads the registers from the given snapshot and notifies the table of only the registers whose value has changed
+     * since the last snapshot.
+     *
+     * @param snapshot the snapshot to read the registers from.
+     */
+    public void update(SimulatorSnapshot snapshot) {
+        for (int row = 0; row < values.length; ++row) {
+            long value = snapshot.getRegister(row);
+            if (values[row] == null || values[row] != value) {
+                values[row] = value;
+                fireTableCellUpdated(row, 1);
+            }
+        }
+    }
+
+    /**
+     * Notifies the table that the name of the given register must be redrawn, such as when its highlight changes.
+     *
+     * @param row the row of the register.
+     */
+    public void updateName(int row) {
+        fireTableCellUpdated(row, 0);
     }
 
     /**
@@ -54,7 +87,7 @@ class RegisterTableModel extends AbstractTableModel {
             return "$" + Registers.getRegisterName(row);
         } else if (col == 1) {
             // values
-            return registers.getRegister(row).getLong();
+            return values[row];
         } else {
             // Error
             throw new RuntimeException();
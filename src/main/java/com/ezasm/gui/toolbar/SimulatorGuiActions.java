@@ -3,13 +3,16 @@ package com.ezasm.gui.toolbar;
 import com.ezasm.gui.Window;
 import com.ezasm.instructions.implementation.TerminalInstructions;
 import com.ezasm.gui.menubar.MenubarFactory;
+import com.ezasm.gui.util.RefreshScheduler;
 import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.Simulator;
 import com.ezasm.simulation.exception.SimulationException;
 import com.ezasm.simulation.exception.SimulationInterruptedException;
 import com.ezasm.util.SystemStreams;
 
-import java.util.concurrent.*;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.ezasm.gui.toolbar.ToolbarFactory.*;
 
@@ -28,19 +31,57 @@ public class SimulatorGuiActions {
     }
 
     /**
-     * The number of milliseconds to wait through each iteration in the paused busy-wait loop. The maximum delay in
-     * execution time after the resume button is pressed.
+     * The maximum number of milliseconds to wait for the worker to finish after it is told to stop.
      */
-    private static final long LOOP_BUSY_WAIT_MS = 50L;
+    private static final long WORKER_JOIN_TIMEOUT_MS = 50L;
+
+    /**
+     * The number of instructions executed between checks for a change in state while running fast.
+     */
+    private static final int FAST_BATCH_SIZE = 10_000;
+
+    /**
+     * The number of nanoseconds between refreshes of the GUI while running fast.
+     */
+    private static final long FAST_SYNC_INTERVAL_NS = 500_000_000L;
 
     private static Thread worker;
-    private static ExecutorService stepThread = Executors.newSingleThreadExecutor();
     private static volatile State state = State.IDLE;
 
     /**
-     * The delay between instructions.
+     * The worker which owns the simulator and is the only thread allowed to publish snapshots of it, or null if no
+     * worker is running. Guarded by the state lock.
+     */
+    private static Thread activeWorker;
+
+    /**
+     * Whether the GUI has asked the active worker to publish a new snapshot. Set under the state lock so that a waiting
+     * worker is woken for it.
+     */
+    private static volatile boolean snapshotRequested;
+
+    /**
+     * Guards changes of state so that the worker can wait for them instead of polling.
      */
-    private static long instructionDelayMS = 500L;
+    private static final ReentrantLock stateLock = new ReentrantLock();
+    private static final Condition stateChanged = stateLock.newCondition();
+
+    /**
+     * Whether the program is run without a delay between instructions or per-instruction GUI updates.
+     */
+    private static volatile boolean fast = false;
+    private static long lastFastSync;
+
+    /**
+     * Coalesces the GUI updates requested by the simulation thread into a limited number of frames per second.
+     */
+    private static final RefreshScheduler refreshScheduler = new RefreshScheduler(
+            RefreshScheduler.DEFAULT_MAX_FRAMES_PER_SECOND, SimulatorGuiActions::refreshFrame);
+
+    /**
+     * The delay between the start of one instruction and the start of the next in nanoseconds.
+     */
+    private static volatile long instructionDelayNS = TimeUnit.MILLISECONDS.toNanos(500L);
 
     /**
      * Updates the delay between instructions to the given value in milliseconds.
@@ -48,16 +89,22 @@ public class SimulatorGuiActions {
      * @param newDelayMS the new delay in between instructions in milliseconds.
      */
     public static void setInstructionDelayMS(long newDelayMS) {
-        instructionDelayMS = newDelayMS;
+        instructionDelayNS = TimeUnit.MILLISECONDS.toNanos(newDelayMS);
     }
 
     /**
-     * Sets the new state of the GUI simulator.
+     * Sets the new state of the GUI simulator and wakes the worker if it is waiting for a change of state.
      *
      * @param newState the state to become.
      */
     private static void setState(State newState) {
-        state = newState;
+        stateLock.lock();
+        try {
+            state = newState;
+            stateChanged.signalAll();
+        } finally {
+            stateLock.unlock();
+        }
 
         boolean isDone = state == State.IDLE || state == State.STOPPED;
 
@@ -65,6 +112,7 @@ public class SimulatorGuiActions {
         Window.getInstance().getEditorPanes().setEnabled(state != State.RUNNING);
         MenubarFactory.setRedirectionEnable(isDone);
         startButton.setEnabled(isDone);
+        runFastButton.setEnabled(isDone);
         stopButton.setEnabled(state == State.RUNNING || state == State.STEPPING);
         stepButton.setEnabled(state != State.RUNNING && state != State.STEPPING);
         stepBackButton.setEnabled(state == State.PAUSED || state == State.STOPPED);
@@ -86,7 +134,6 @@ public class SimulatorGuiActions {
                 setState(State.STEPPING);
                 Window.getInstance().parseText();
                 Window.getInstance().getConsole().reset();
-                resetStepThread();
                 SystemStreams.printlnCurrentOut("** Program starting **");
                 startWorker();
             } catch (ParseException e) {
@@ -94,16 +141,8 @@ public class SimulatorGuiActions {
                 Window.getInstance().handleParseException(e);
             }
         } else if (state == State.PAUSED) {
+            // The waiting worker runs the line and pauses again
             setState(State.STEPPING);
-            stepThread.execute(() -> {
-                try {
-                    runOneLine();
-                } catch (SimulationInterruptedException ignored) { // Expected interruption from Stop or Reset
-                } catch (SimulationException e) {
-                    setState(State.STOPPED);
-                    Window.getInstance().handleParseException(e);
-                }
-            });
         }
     }
 
@@ -112,7 +151,6 @@ public class SimulatorGuiActions {
      */
     static void stepBack() {
         try {
-            resetStepThread();
             if (state == State.STOPPED) {
                 setState(State.PAUSED);
                 startWorker();
@@ -121,6 +159,7 @@ public class SimulatorGuiActions {
             if (Window.getInstance().getSimulator().undoLastTransformations()) {
                 // Some inverse transform was executed
                 setState(State.PAUSED);
+                Window.getInstance().getSimulator().publishSnapshot();
                 Window.getInstance().getEditor().updateHighlight();
                 Window.getInstance().updateGraphicInformation();
             } else {
@@ -138,6 +177,23 @@ public class SimulatorGuiActions {
      * interrupts the execution.
      */
     static void start() {
+        fast = false;
+        startRunning();
+    }
+
+    /**
+     * Handles if the user requests that the program runs as fast as possible until completion, an error occurs, or the
+     * user interrupts the execution. The GUI is only updated periodically and when the program pauses or stops.
+     */
+    static void runFast() {
+        fast = true;
+        startRunning();
+    }
+
+    /**
+     * Parses the program and starts running it from the beginning.
+     */
+    private static void startRunning() {
         try {
             Window.getInstance().parseText();
             setState(State.RUNNING);
@@ -156,7 +212,6 @@ public class SimulatorGuiActions {
     static void stop() {
         setState(State.STOPPED);
         Window.getInstance().getEditor().resetHighlighter();
-        resetStepThread();
         killWorker();
         awaitWorkerTermination();
     }
@@ -181,39 +236,104 @@ public class SimulatorGuiActions {
     static void reset() {
         stop();
         Window.getInstance().getSimulator().resetAll();
+        Window.getInstance().getSimulator().publishSnapshot();
         Window.getInstance().updateGraphicInformation();
         Window.getInstance().getRegisterTable().removeHighlightValue();
         setState(State.IDLE);
     }
 
     /**
-     * Handles the main simulation loop. Is meant to run on an asynchronous thread as to not impede GUI execution.
-     * Handles changing between states and buffering delays between instructions.
+     * Handles the main simulation loop. Is meant to run on an asynchronous thread as to not impede GUI execution. Waits
+     * without using the CPU while paused and between instructions; any change of state wakes it immediately.
      */
     private static void simulationLoop() {
-        while (!Window.getInstance().getSimulator().isDone()
-                && (state == State.RUNNING || state == State.PAUSED || state == State.STEPPING)) {
-            try {
-                runOneLine();
-            } catch (SimulationInterruptedException ignored) { // Expected interruption from Stop or Reset
-                break;
-            } catch (SimulationException e) {
-                Window.getInstance().handleParseException(e);
-                break;
-            }
-            try {
-                LockSupport.parkNanos(instructionDelayMS * 1_000_000);
-                while (state == State.PAUSED || state == State.STEPPING) { // busy wait
-                    LockSupport.parkNanos(LOOP_BUSY_WAIT_MS * 1_000_000);
+        Simulator simulator = Window.getInstance().getSimulator();
+        try {
+            while (!simulator.isDone() && awaitRunnable()) {
+                long lineStart = System.nanoTime();
+                try {
+                    if (fast && state == State.RUNNING) {
+                        runBatch();
+                    } else {
+                        runOneLine();
+                    }
+                } catch (SimulationInterruptedException ignored) { // Expected interruption from Stop or Reset
+                    break;
+                } catch (SimulationException e) {
+                    Window.getInstance().handleParseException(e);
+                    break;
+                }
+                if (!fast) {
+                    awaitInstructionDelay(lineStart + instructionDelayNS);
                 }
-            } catch (Exception e) {
-                break;
             }
+        } catch (InterruptedException ignored) { // Expected interruption from Stop or Reset
         }
+        stateLock.lock();
+        try {
+            if (activeWorker == Thread.currentThread()) {
+                activeWorker = null;
+            }
+            snapshotRequested = false;
+            simulator.publishSnapshot();
+        } finally {
+            stateLock.unlock();
+        }
+        refreshScheduler.requestRefresh();
         setState(State.STOPPED);
         Window.getInstance().handleProgramCompletion();
     }
 
+    /**
+     * Waits while the program is paused.
+     *
+     * @return true if the worker should execute the next line, false if it should stop.
+     * @throws InterruptedException if the worker is interrupted while waiting.
+     */
+    private static boolean awaitRunnable() throws InterruptedException {
+        stateLock.lockInterruptibly();
+        try {
+            while (state == State.PAUSED) {
+                publishRequestedSnapshot();
+                stateChanged.await();
+            }
+            return state == State.RUNNING || state == State.STEPPING;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the given time for the delay between instructions to pass. Returns early if the state changes from
+     * running, so that pausing, stepping, and stopping take effect immediately.
+     *
+     * @param deadline the value of {@link System#nanoTime()} at which the next instruction should start.
+     * @throws InterruptedException if the worker is interrupted while waiting.
+     */
+    private static void awaitInstructionDelay(long deadline) throws InterruptedException {
+        stateLock.lockInterruptibly();
+        try {
+            long remaining = deadline - System.nanoTime();
+            while (state == State.RUNNING && remaining > 0) {
+                publishRequestedSnapshot();
+                remaining = stateChanged.awaitNanos(remaining);
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a snapshot if the GUI has asked for one. Must be called by the worker while holding the state lock.
+     */
+    private static void publishRequestedSnapshot() {
+        if (snapshotRequested) {
+            snapshotRequested = false;
+            Window.getInstance().getSimulator().publishSnapshot();
+            refreshScheduler.requestRefresh();
+        }
+    }
+
     /**
      * Runs one line from the current simulator. Handles state changes dependent on the outcome.
      *
@@ -221,9 +341,9 @@ public class SimulatorGuiActions {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     private static void runOneLine() throws SimulationException, SimulationInterruptedException {
-        Window.getInstance().getEditor().updateHighlight();
         Window.getInstance().getSimulator().executeLineFromPC();
-        Window.getInstance().updateGraphicInformation();
+        Window.getInstance().getSimulator().publishSnapshot();
+        refreshScheduler.requestRefresh();
         SimulationInterruptedException.handleInterrupts();
         if (state == State.STEPPING) {
             setState(State.PAUSED);
@@ -231,11 +351,58 @@ public class SimulatorGuiActions {
     }
 
     /**
-     * Forcibly resets the step thread.
+     * Requests that the GUI be refreshed from a new snapshot of the simulator. The snapshot is published immediately if
+     * no worker is running; otherwise the worker is asked to publish one, which it does once it is between lines, so
+     * that it stays the only thread reading the simulator while it may be writing to it.
      */
-    private static void resetStepThread() {
-        stepThread.shutdownNow();
-        stepThread = Executors.newSingleThreadExecutor();
+    public static void refresh() {
+        stateLock.lock();
+        try {
+            if (activeWorker == null) {
+                Window.getInstance().getSimulator().publishSnapshot();
+            } else {
+                snapshotRequested = true;
+                stateChanged.signalAll();
+            }
+        } finally {
+            stateLock.unlock();
+        }
+        refreshScheduler.requestRefresh();
+    }
+
+    /**
+     * Runs a batch of lines from the current simulator without updating the GUI in between. Stops early if the state
+     * changes or the program finishes. Requests a GUI update only if the batch stopped early or enough time has passed
+     * since the last one.
+     *
+     * @throws SimulationException            if an error occurs in execution.
+     * @throws SimulationInterruptedException if an interrupt occurs while executing.
+     */
+    private static void runBatch() throws SimulationException, SimulationInterruptedException {
+        Simulator simulator = Window.getInstance().getSimulator();
+        for (int i = 0; i < FAST_BATCH_SIZE && state == State.RUNNING && !simulator.isDone(); ++i) {
+            simulator.executeLineFromPC();
+        }
+        SimulationInterruptedException.handleInterrupts();
+        long now = System.nanoTime();
+        if (state != State.RUNNING || simulator.isDone() || now - lastFastSync >= FAST_SYNC_INTERVAL_NS
+                || snapshotRequested) {
+            lastFastSync = now;
+            snapshotRequested = false;
+            simulator.publishSnapshot();
+            refreshScheduler.requestRefresh();
+        }
+    }
+
+    /**
+     * Refreshes the GUI from the most recent snapshot of the simulator in one frame. Highlights the line to be executed
+     * next only while a program is in progress.
+     */
+    private static void refreshFrame() {
+        if (state == State.RUNNING || state == State.PAUSED || state == State.STEPPING) {
+            Window.getInstance().getEditor().updateHighlight();
+        }
+        Window.getInstance().updateGraphicInformation();
     }
 
     /**
@@ -252,6 +419,13 @@ public class SimulatorGuiActions {
             throw new RuntimeException("There was an error reading from the given input file");
         }
         worker = new Thread(SimulatorGuiActions::simulationLoop);
+        stateLock.lock();
+        try {
+            activeWorker = worker;
+            snapshotRequested = false;
+        } finally {
+            stateLock.unlock();
+        }
         worker.start();
     }
 
@@ -270,7 +444,7 @@ public class SimulatorGuiActions {
     private static void awaitWorkerTermination() {
         if (worker != null) {
             try {
-                worker.join(LOOP_BUSY_WAIT_MS);
+                worker.join(WORKER_JOIN_TIMEOUT_MS);
             } catch (InterruptedException ignored) {
             }
         }
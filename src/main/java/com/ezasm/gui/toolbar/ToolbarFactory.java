@@ -18,6 +18,7 @@ import java.awt.event.ActionListener;
 public class ToolbarFactory {
 
     static final String START = "  Start  ";
+    static final String RUN_FAST = " Run Fast ";
     static final String STOP = "   Stop   ";
     static final String PAUSE = "  Pause  ";
     static final String RESUME = "  Resume  ";
@@ -28,6 +29,7 @@ public class ToolbarFactory {
     private static final ToolbarActionListener actionListener = new ToolbarActionListener();
 
     static JButton startButton;
+    static JButton runFastButton;
     static JButton stopButton;
     static JButton pauseButton;
     static JButton resumeButton;
@@ -45,6 +47,7 @@ public class ToolbarFactory {
         toolbar.setFloatable(false);
 
         addButton(toolbar, START);
+        addButton(toolbar, RUN_FAST);
         addButton(toolbar, STOP);
         addButton(toolbar, PAUSE);
         addButton(toolbar, RESUME);
@@ -65,6 +68,7 @@ public class ToolbarFactory {
         Border buttonBorder = BorderFactory.createMatteBorder(0, 0, 0, 1, editorTheme.foreground());
         EditorTheme.applyFontThemeBorder(toolbar, font, editorTheme, border);
         EditorTheme.applyFontThemeBorder(startButton, font, editorTheme, buttonBorder);
+        EditorTheme.applyFontThemeBorder(runFastButton, font, editorTheme, buttonBorder);
         EditorTheme.applyFontThemeBorder(stopButton, font, editorTheme, buttonBorder);
         EditorTheme.applyFontThemeBorder(pauseButton, font, editorTheme, buttonBorder);
         EditorTheme.applyFontThemeBorder(resumeButton, font, editorTheme, buttonBorder);
@@ -79,9 +83,10 @@ public class ToolbarFactory {
      * @param state the new state of the buttons.
      */
     public static void setButtonsEnabled(boolean state) {
-        if (stepButton != null && startButton != null && pauseButton != null) {
+        if (stepButton != null && startButton != null && runFastButton != null && pauseButton != null) {
             stepButton.setEnabled(state);
             startButton.setEnabled(state);
+            runFastButton.setEnabled(state);
             pauseButton.setEnabled(false);
         }
     }
@@ -97,6 +102,7 @@ public class ToolbarFactory {
         case STEP -> stepButton = button;
         case STEP_BACK -> stepBackButton = button;
         case START -> startButton = button;
+        case RUN_FAST -> runFastButton = button;
         case STOP -> stopButton = button;
         case PAUSE -> pauseButton = button;
         case RESUME -> resumeButton = button;
@@ -114,6 +120,7 @@ public class ToolbarFactory {
             case STEP -> step();
             case STEP_BACK -> stepBack();
             case START -> start();
+            case RUN_FAST -> runFast();
             case STOP -> stop();
             case PAUSE -> pause();
             case RESUME -> resume();
@@ -0,0 +1,70 @@
+package com.ezasm.gui.util;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces requests to refresh part of the GUI into frames which are run on the event dispatch thread at most a fixed
+ * number of times per second. Any number of requests made between two frames result in a single refresh. Requesting a
+ * refresh never blocks, so it is safe to do from the simulation thread after every instruction.
+ */
+public class RefreshScheduler {
+
+    /**
+     * The default maximum number of frames per second.
+     */
+    public static final int DEFAULT_MAX_FRAMES_PER_SECOND = 30;
+
+    private final Runnable refresh;
+    private final AtomicBoolean pending;
+    private final Timer timer;
+
+    /**
+     * Constructs a refresh scheduler which runs the given refresh at most the given number of times per second.
+     *
+     * @param maxFramesPerSecond the maximum number of times per second to run the refresh.
+     * @param refresh            the refresh to run on the event dispatch thread.
+     */
+    public RefreshScheduler(int maxFramesPerSecond, Runnable refresh) {
+        this.refresh = refresh;
+        this.pending = new AtomicBoolean(false);
+        this.timer = new Timer(1000 / Math.max(1, maxFramesPerSecond), e -> frame());
+        this.timer.setInitialDelay(0);
+    }
+
+    /**
+     * Requests that the refresh be run in the next frame. May be called from any thread.
+     */
+    public void requestRefresh() {
+        if (!pending.getAndSet(true) && !timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Runs the refresh immediately if one has been requested and not yet run. Must be called on the event dispatch
+     * thread.
+     */
+    public void flush() {
+        if (pending.getAndSet(false)) {
+            refresh.run();
+        }
+    }
+
+    /**
+     * Runs one frame: runs the refresh if one was requested since the last frame, or stops the timer until the next
+     * request otherwise.
+     */
+    private void frame() {
+        if (pending.getAndSet(false)) {
+            refresh.run();
+            return;
+        }
+        timer.stop();
+        // A request may have arrived after the check above while the timer still appeared to be running
+        if (pending.get()) {
+            timer.start();
+        }
+    }
+
+}
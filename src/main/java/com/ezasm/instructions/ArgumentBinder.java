@@ -0,0 +1,22 @@
+package com.ezasm.instructions;
+
+import com.ezasm.instructions.targets.IAbstractTarget;
+import com.ezasm.parsing.ParseException;
+
+/**
+ * Binds the arguments of a line of an instruction once when the line is loaded, so that anything the instruction would
+ * otherwise look up every time it runs can be resolved ahead of time and kept with the line.
+ */
+@FunctionalInterface
+public interface ArgumentBinder {
+
+    /**
+     * Binds the parsed arguments of a line.
+     *
+     * @param arguments the parsed arguments of the line.
+     * @return the arguments to keep with the line, which may be the given arguments themselves.
+     * @throws ParseException if the arguments cannot be bound.
+     */
+    IAbstractTarget[] bind(IAbstractTarget[] arguments) throws ParseException;
+
+}
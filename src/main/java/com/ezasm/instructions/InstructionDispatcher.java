@@ -5,7 +5,9 @@ import com.ezasm.simulation.Simulator;
 import com.ezasm.instructions.exception.InstructionLoadException;
 import com.ezasm.instructions.exception.IllegalInstructionException;
 import com.ezasm.instructions.exception.InstructionDispatchException;
+import com.ezasm.instructions.targets.IAbstractTarget;
 import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ParseException;
 import com.ezasm.simulation.exception.SimulationInterruptedException;
 import com.ezasm.simulation.transform.TransformationSequence;
 import com.ezasm.simulation.exception.SimulationException;
@@ -25,6 +27,11 @@ public class InstructionDispatcher {
      */
     private static final HashMap<String, ArrayList<DispatchInstruction>> instructions = new HashMap<>();
 
+    /**
+     * The binders for the arguments of instructions which resolve part of their work when a line is loaded.
+     */
+    private static final HashMap<String, ArgumentBinder> binders = new HashMap<>();
+
     static {
         registerInstructions(ArithmeticInstructions.class);
         registerInstructions(FloatArithmeticInstructions.class);
@@ -34,6 +41,32 @@ public class InstructionDispatcher {
         registerInstructions(FunctionInstructions.class);
         registerInstructions(MemoryInstructions.class);
         registerInstructions(ImportInstructions.class);
+        registerInstructions(FileInstructions.class);
+        registerInstructions(NativeInstructions.class);
+        registerArgumentBinder("native", NativeInstructions::bindHostFunction);
+    }
+
+    /**
+     * Registers a binder for the arguments of lines of the given instruction, run once when each line is loaded.
+     *
+     * @param name   the instruction name.
+     * @param binder the binder for the arguments of the instruction.
+     */
+    public static void registerArgumentBinder(String name, ArgumentBinder binder) {
+        binders.put(name, binder);
+    }
+
+    /**
+     * Binds the parsed arguments of a line of the given instruction with its registered binder, if it has one.
+     *
+     * @param name      the instruction name.
+     * @param arguments the parsed arguments of the line.
+     * @return the arguments to keep with the line.
+     * @throws ParseException if the arguments cannot be bound.
+     */
+    public static IAbstractTarget[] bindArguments(String name, IAbstractTarget[] arguments) throws ParseException {
+        ArgumentBinder binder = binders.get(name);
+        return binder == null ? arguments : binder.bind(arguments);
     }
 
     /**
@@ -0,0 +1,84 @@
+package com.ezasm.instructions.host;
+
+import com.ezasm.instructions.targets.input.IAbstractInput;
+import com.ezasm.instructions.targets.input.StringInput;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.TransformationSequence;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A host function which can be dispatched, bound to the instance of the provider which implements it.
+ *
+ * @param provider         the instance of the provider of the host function.
+ * @param invocationTarget the method that corresponds to the host function.
+ */
+public record DispatchHostFunction(HostFunctions provider, Method invocationTarget) {
+
+    /**
+     * Checks if this host function is callable with the given argument types. String immediates may be passed as a
+     * {@code String} or as their address, and every other argument as a {@code long} or {@code double}.
+     *
+     * @param givenArguments the argument types the caller gave.
+     * @return true if this host function is callable with the given argument types, false otherwise.
+     */
+    public boolean isCallableWith(Class<?>[] givenArguments) {
+        Class<?>[] parameters = invocationTarget.getParameterTypes();
+        if (parameters.length != givenArguments.length + 1) {
+            return false;
+        }
+
+        for (int i = 0; i < givenArguments.length; ++i) {
+            Class<?> parameter = parameters[i + 1];
+            boolean string = StringInput.class.isAssignableFrom(givenArguments[i]);
+            if (parameter == String.class ? !string : parameter == double.class && string) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invokes the host function with the given arguments. Any writes it made are reverted if it fails.
+     *
+     * @param simulator the simulator the host function acts on.
+     * @param arguments the arguments of the call.
+     * @return the writes the host function made, already reverted, to be applied by the simulator.
+     * @throws SimulationException if the host function fails.
+     */
+    public TransformationSequence invoke(Simulator simulator, IAbstractInput[] arguments) throws SimulationException {
+        Class<?>[] parameters = invocationTarget.getParameterTypes();
+        Object[] values = new Object[parameters.length];
+        HostContext context = new HostContext(simulator);
+        values[0] = context;
+        for (int i = 0; i < arguments.length; ++i) {
+            if (parameters[i + 1] == String.class) {
+                values[i + 1] = ((StringInput) arguments[i]).getString();
+            } else if (parameters[i + 1] == double.class) {
+                values[i + 1] = arguments[i].get(simulator).floatValue();
+            } else {
+                values[i + 1] = arguments[i].get(simulator).intValue();
+            }
+        }
+
+        try {
+            invocationTarget.invoke(provider, values);
+        } catch (InvocationTargetException e) {
+            context.finish();
+            Throwable cause = e.getTargetException();
+            if (cause instanceof SimulationException simulationException) {
+                throw simulationException;
+            }
+            throw new SimulationException(String.format("Host function '%s' failed: %s", invocationTarget.getName(),
+                    cause == null ? "an unknown error occurred" : cause));
+        } catch (IllegalAccessException e) {
+            context.finish();
+            throw new SimulationException(
+                    String.format("Host function '%s' is not accessible", invocationTarget.getName()));
+        }
+        return context.finish();
+    }
+
+}
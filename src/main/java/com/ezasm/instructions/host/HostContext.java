@@ -0,0 +1,184 @@
+package com.ezasm.instructions.host;
+
+import com.ezasm.instructions.targets.inputoutput.RegisterInputOutput;
+import com.ezasm.simulation.Memory;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.Transformation;
+import com.ezasm.simulation.transform.TransformationSequence;
+import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
+import com.ezasm.simulation.transform.transformable.MemoryRangeTransformable;
+import com.ezasm.util.RawData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The view of the simulator given to a host function. Registers and memory may be read freely, but memory may only be
+ * written where the program itself could write, and the control flow registers {@code $pc} and {@code $fid} may not be
+ * written at all. Every write is applied immediately, so later reads see it, and is journaled as a
+ * {@link Transformation} so that the call can be undone like any other instruction.
+ */
+public class HostContext {
+
+    private final Simulator simulator;
+    private final List<Transformation> journal;
+
+    /**
+     * Constructs a context for a single call of a host function.
+     *
+     * @param simulator the simulator the host function acts on.
+     */
+    HostContext(Simulator simulator) {
+        this.simulator = simulator;
+        this.journal = new ArrayList<>();
+    }
+
+    /**
+     * Gets the word size of the simulator.
+     *
+     * @return the word size in bytes.
+     */
+    public int getWordSize() {
+        return Memory.getWordSize();
+    }
+
+    /**
+     * Gets the integer value of the given register.
+     *
+     * @param register the name of the register.
+     * @return the integer value of the register.
+     * @throws SimulationException if the register does not exist.
+     */
+    public long getRegister(String register) throws SimulationException {
+        checkRegister(register);
+        return simulator.getRegisters().getRegister(register).getLong();
+    }
+
+    /**
+     * Gets the float value of the given register.
+     *
+     * @param register the name of the register.
+     * @return the float value of the register.
+     * @throws SimulationException if the register does not exist.
+     */
+    public double getFloatRegister(String register) throws SimulationException {
+        checkRegister(register);
+        return simulator.getRegisters().getRegister(register).getDouble();
+    }
+
+    /**
+     * Sets the given register to an integer value.
+     *
+     * @param register the name of the register.
+     * @param value    the integer value.
+     * @throws SimulationException if the register does not exist or may not be written.
+     */
+    public void setRegister(String register, long value) throws SimulationException {
+        writeRegister(register, new RawData(value));
+    }
+
+    /**
+     * Sets the given register to a float value.
+     *
+     * @param register the name of the register.
+     * @param value    the float value.
+     * @throws SimulationException if the register does not exist or may not be written.
+     */
+    public void setFloatRegister(String register, double value) throws SimulationException {
+        writeRegister(register, new RawData(value));
+    }
+
+    /**
+     * Reads bytes of memory.
+     *
+     * @param address the address of the first byte.
+     * @param count   the number of bytes to read.
+     * @return the bytes read.
+     * @throws SimulationException if the bytes are outside the readable memory.
+     */
+    public byte[] read(int address, int count) throws SimulationException {
+        return simulator.getMemory().read(address, count).data();
+    }
+
+    /**
+     * Reads a word of memory as an integer.
+     *
+     * @param address the address of the word.
+     * @return the integer value of the word.
+     * @throws SimulationException if the word is outside the readable memory.
+     */
+    public long readWord(int address) throws SimulationException {
+        return simulator.getMemory().read(address).intValue();
+    }
+
+    /**
+     * Reads a null-terminated string in the current string format of the memory.
+     *
+     * @param address the address of the first character.
+     * @return the string read, not including the null terminator.
+     * @throws SimulationException if the string runs outside the readable memory.
+     */
+    public String readString(int address) throws SimulationException {
+        return simulator.getMemory().readString(address);
+    }
+
+    /**
+     * Writes bytes to memory.
+     *
+     * @param address the address of the first byte.
+     * @param data    the bytes to write.
+     * @throws SimulationException if the bytes are outside the memory the program may write.
+     */
+    public void write(int address, byte[] data) throws SimulationException {
+        MemoryRangeTransformable range = new MemoryRangeTransformable(simulator, address, data.length);
+        record(range.transformation(new RawData(data)));
+    }
+
+    /**
+     * Writes an integer to a word of memory.
+     *
+     * @param address the address of the word.
+     * @param value   the integer value.
+     * @throws SimulationException if the word is outside the memory the program may write.
+     */
+    public void writeWord(int address, long value) throws SimulationException {
+        write(address, new RawData(value).data());
+    }
+
+    private void checkRegister(String register) throws SimulationException {
+        if (!Registers.isRegister(register)) {
+            throw new SimulationException(String.format("Register '%s' does not exist", register));
+        }
+    }
+
+    private void writeRegister(String register, RawData value) throws SimulationException {
+        checkRegister(register);
+        int number = Registers.getRegisterNumber(register);
+        if (number == Registers.getRegisterNumber(Registers.PC)
+                || number == Registers.getRegisterNumber(Registers.FID)) {
+            throw new SimulationException(String.format("Host functions may not write register '%s'", register));
+        }
+        InputOutputTransformable io = new InputOutputTransformable(simulator, new RegisterInputOutput(number));
+        record(io.transformation(value));
+    }
+
+    private void record(Transformation transformation) throws SimulationException {
+        transformation.apply();
+        journal.add(transformation);
+    }
+
+    /**
+     * Reverts every write made through this context and returns them as a sequence to be applied by the simulator.
+     *
+     * @return the journaled writes.
+     * @throws SimulationException if there is an error reverting the writes.
+     */
+    TransformationSequence finish() throws SimulationException {
+        TransformationSequence writes = new TransformationSequence(journal.toArray(new Transformation[0]));
+        writes.invert().apply();
+        return writes;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.ezasm.instructions.host;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A runtime annotation to denote the methods of a {@link HostFunctions} provider which should be loaded as host
+ * functions. A host function is named like an instruction after its method, and takes a {@link HostContext} followed by
+ * a {@code long}, {@code double} or {@code String} parameter for each of its arguments.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface HostFunction {
+
+}
@@ -0,0 +1,130 @@
+package com.ezasm.instructions.host;
+
+import com.ezasm.instructions.exception.InstructionLoadException;
+import com.ezasm.util.SystemStreams;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Contains a mapping of all host function names and their corresponding overloads. The providers on the classpath are
+ * loaded once with {@link ServiceLoader}, and the overload for a line calling a host function is resolved when the line
+ * is loaded and kept with it.
+ */
+public class HostFunctionRegistry {
+
+    /**
+     * The internal backing map for names and loaded host functions.
+     */
+    private static final Map<String, ArrayList<DispatchHostFunction>> functions = new HashMap<>();
+
+    static {
+        loadProviders();
+    }
+
+    /**
+     * Loads every provider on the classpath. A provider which cannot be instantiated or declares an invalid host
+     * function is reported and skipped, so that one broken plugin does not prevent the others from loading.
+     */
+    private static void loadProviders() {
+        Iterator<HostFunctions> providers = ServiceLoader.load(HostFunctions.class).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                registerHostFunctions(providers.next());
+            } catch (ServiceConfigurationError | InstructionLoadException e) {
+                SystemStreams.err.printf("Skipping host function provider: %s\n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registers the host functions of a provider. Host functions are registered by scanning the provider's declared
+     * methods for those annotated with {@link HostFunction}. If a name begins with an '_' then the leading '_' is
+     * stripped, as for instructions. Every method is validated before any is registered, so an invalid provider
+     * registers nothing.
+     *
+     * @param provider the instance of the provider to register host functions from.
+     * @throws InstructionLoadException if any of the host functions of the provider is invalid.
+     */
+    public static synchronized void registerHostFunctions(HostFunctions provider) {
+        Method[] methods = Arrays.stream(provider.getClass().getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(HostFunction.class)).toArray(Method[]::new);
+        for (Method method : methods) {
+            validateHostFunction(provider, method);
+        }
+        for (Method method : methods) {
+            registerHostFunction(provider, method);
+        }
+    }
+
+    /**
+     * Registers a single host function. The method is assumed to be annotated with {@link HostFunction} and valid at
+     * this point.
+     *
+     * @param provider the instance of the provider of the method.
+     * @param method   the method to register as a host function.
+     */
+    private static void registerHostFunction(HostFunctions provider, Method method) {
+        String name = method.getName().toLowerCase();
+        if (name.startsWith("_")) {
+            name = name.substring(1);
+        }
+
+        functions.computeIfAbsent(name, k -> new ArrayList<>()).add(new DispatchHostFunction(provider, method));
+    }
+
+    /**
+     * Validates the given method as a host function.
+     *
+     * @param provider the instance of the provider of the method.
+     * @param method   the host function to validate.
+     */
+    private static void validateHostFunction(HostFunctions provider, Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        boolean valid = Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())
+                && method.getReturnType() == void.class && parameters.length > 0 && parameters[0] == HostContext.class;
+        for (int i = 1; valid && i < parameters.length; ++i) {
+            valid = parameters[i] == long.class || parameters[i] == double.class || parameters[i] == String.class;
+        }
+        if (!valid) {
+            throw new InstructionLoadException("Error loading host function '" + method.getName() + "' of "
+                    + provider.getClass().getName()
+                    + ". Host functions must be public void methods taking a HostContext followed by long, double or String parameters");
+        }
+    }
+
+    /**
+     * Retrieves the names of the registered host functions as immutable.
+     *
+     * @return the names of the registered host functions.
+     */
+    public static synchronized Set<String> getHostFunctionNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(functions.keySet()));
+    }
+
+    /**
+     * Gets the host function overload for the given name and argument types.
+     *
+     * @param name      the host function name.
+     * @param arguments the argument types of the call, not including the name.
+     * @return the corresponding host function if it exists, null otherwise.
+     */
+    public static synchronized DispatchHostFunction getHostFunction(String name, Class<?>[] arguments) {
+        ArrayList<DispatchHostFunction> overloads = functions.get(name.toLowerCase());
+
+        if (overloads == null)
+            return null;
+
+        for (DispatchHostFunction function : overloads) {
+            if (function.isCallableWith(arguments))
+                return function;
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.ezasm.instructions.host;
+
+/**
+ * A provider of host functions which EzASM programs call with the {@code native} instruction. Providers are discovered
+ * with {@link java.util.ServiceLoader} from the jars on the classpath, so a plugin lists its implementations in
+ * {@code META-INF/services/com.ezasm.instructions.host.HostFunctions} and must have a public no-argument constructor.
+ * The methods of a provider annotated with {@link HostFunction} are registered as host functions.
+ */
+public interface HostFunctions {
+
+}
@@ -0,0 +1,389 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import com.ezasm.util.Seekable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads whitespace-separated tokens from an input stream through a buffer, so that the underlying stream is read in
+ * blocks rather than one byte at a time. Integers and most decimal numbers are parsed directly from the bytes read
+ * without creating a string. Keeps the exact number of bytes consumed so far as its position, independent of how far
+ * ahead the buffer has read, and can seek within seekable streams.
+ */
+public class BufferedTokenReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The most significant digits a decimal number may have for it to be exactly representable as a long which is
+     * exactly representable as a double.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /**
+     * The powers of ten which are exactly representable as doubles.
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private final StringBuilder token;
+
+    /**
+     * The position in the stream of the first byte of the buffer.
+     */
+    private long bufferStart;
+    private int index;
+    private int limit;
+
+    /**
+     * Constructs a token reader which reads from the given stream, starting at position 0.
+     *
+     * @param inputStream the stream to read from.
+     */
+    public BufferedTokenReader(InputStream inputStream) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.token = new StringBuilder();
+        this.bufferStart = 0;
+        this.index = 0;
+        this.limit = 0;
+    }
+
+    /**
+     * Gets the stream this reader reads from.
+     *
+     * @return the stream this reader reads from.
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Gets the number of bytes consumed from the stream by this reader, or the position seeked to plus the bytes
+     * consumed since.
+     *
+     * @return the position of the next byte to be read.
+     */
+    public long getPosition() {
+        return bufferStart + index;
+    }
+
+    /**
+     * Moves the reader to the given position in the stream. Positions within the buffer are reached without touching
+     * the stream; other positions require the stream to be seekable.
+     *
+     * @param position the position to move to.
+     * @throws IOException if the position is outside the buffer and the stream cannot seek to it.
+     */
+    public void seek(long position) throws IOException {
+        if (position >= bufferStart && position <= bufferStart + limit) {
+            index = (int) (position - bufferStart);
+            return;
+        }
+        if (!(inputStream instanceof Seekable file)) {
+            throw new IOException("The input stream does not support seeking");
+        }
+        file.seek(position);
+        bufferStart = position;
+        index = 0;
+        limit = 0;
+    }
+
+    /**
+     * Discards everything buffered by this reader and everything the stream has available without blocking. The
+     * position is left unchanged.
+     *
+     * @throws IOException if an error occurs skipping the available bytes of the stream.
+     */
+    public void discard() throws IOException {
+        bufferStart += index;
+        index = 0;
+        limit = 0;
+        inputStream.skipNBytes(inputStream.available());
+    }
+
+    /**
+     * Reads the next block of the stream into the buffer, waiting until at least one byte is available.
+     *
+     * @return true if bytes were read, false if the end of the stream was reached.
+     * @throws IOException                    if an error occurs reading from the stream.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    private boolean fill() throws IOException, SimulationInterruptedException {
+        bufferStart += limit;
+        index = 0;
+        limit = 0;
+        int read;
+        do {
+            read = inputStream.read(buffer, 0, buffer.length);
+            SimulationInterruptedException.handleInterrupts();
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @return the byte read in [0,255], or -1 if the end of the stream was reached.
+     * @throws IOException                    if an error occurs reading from the stream.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    public int read() throws IOException, SimulationInterruptedException {
+        if (index == limit && !fill()) {
+            return -1;
+        }
+        return buffer[index++] & 0xFF;
+    }
+
+    /**
+     * Reads bytes into the given array until it is filled or the stream ends. Once the buffer is empty, the rest of a
+     * read at least as long as the buffer goes directly from the stream into the array.
+     *
+     * @param b   the array into which the bytes are read.
+     * @param off the start offset in array {@code b} at which the bytes are written.
+     * @param len the number of bytes to read.
+     * @return the number of bytes read, which is less than len only if the stream ended.
+     * @throws IOException                    if an error occurs reading from the stream.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    public int readBytes(byte[] b, int off, int len) throws IOException, SimulationInterruptedException {
+        int read = 0;
+        while (read < len) {
+            if (index == limit) {
+                if (len - read >= buffer.length) {
+                    bufferStart += limit;
+                    index = 0;
+                    limit = 0;
+                    int direct = inputStream.read(b, off + read, len - read);
+                    SimulationInterruptedException.handleInterrupts();
+                    if (direct < 0) {
+                        break;
+                    }
+                    bufferStart += direct;
+                    read += direct;
+                    continue;
+                }
+                if (!fill()) {
+                    break;
+                }
+            }
+            int copied = Math.min(len - read, limit - index);
+            System.arraycopy(buffer, index, b, off + read, copied);
+            index += copied;
+            read += copied;
+        }
+        return read;
+    }
+
+    /**
+     * Reads bytes until one which is not whitespace is read.
+     *
+     * @return the first byte which is not whitespace.
+     * @throws IOException                    if an error occurs reading from the stream or it ends first.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    private int skipWhitespace() throws IOException, SimulationInterruptedException {
+        int c;
+        do {
+            c = read();
+        } while (Character.isWhitespace(c));
+        if (c == -1) {
+            throw new EOFException("Reached the end of file while reading");
+        }
+        return c;
+    }
+
+    /**
+     * Reads the next whitespace-separated word into the token buffer. The whitespace byte ending the word is consumed.
+     *
+     * @throws IOException                    if an error occurs reading from the stream or it ends before a word.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    private void readToken() throws IOException, SimulationInterruptedException {
+        token.setLength(0);
+        int c = skipWhitespace();
+        do {
+            token.append((char) c);
+            c = read();
+        } while (c != -1 && !Character.isWhitespace(c));
+    }
+
+    /**
+     * Reads the first character which is not whitespace.
+     *
+     * @return the character read.
+     * @throws IOException                    if an error occurs reading from the stream or it ends first.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    public char readChar() throws IOException, SimulationInterruptedException {
+        return (char) skipWhitespace();
+    }
+
+    /**
+     * Reads the next whitespace-separated word. The whitespace byte ending the word is consumed.
+     *
+     * @return the word read.
+     * @throws IOException                    if an error occurs reading from the stream or it ends before a word.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    public String readWord() throws IOException, SimulationInterruptedException {
+        readToken();
+        return token.toString();
+    }
+
+    /**
+     * Reads bytes up to and including the next newline, or to the end of the stream.
+     *
+     * @return the line read, including its newline if there was one.
+     * @throws IOException                    if an error occurs reading from the stream or it has already ended.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    public String readLine() throws IOException, SimulationInterruptedException {
+        int c = read();
+        if (c == -1) {
+            throw new EOFException("Reached the end of file while reading");
+        }
+        token.setLength(0);
+        while (c != -1) {
+            token.append((char) c);
+            if (c == '\n') {
+                break;
+            }
+            c = read();
+        }
+        return token.toString();
+    }
+
+    /**
+     * Reads the next whitespace-separated word as a long, accepting the same text as {@link Long#parseLong(String)}.
+     * The whole word is consumed even if it is not a valid long.
+     *
+     * @return the long read.
+     * @throws IOException                    if an error occurs reading from the stream or it ends before a word.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     * @throws NumberFormatException          if the word is not a valid long.
+     */
+    public long readLong() throws IOException, SimulationInterruptedException {
+        int c = skipWhitespace();
+        boolean negative = c == '-';
+        if (c == '-' || c == '+') {
+            c = read();
+        }
+        // Accumulate negatively so that Long.MIN_VALUE can be read
+        long result = 0;
+        boolean valid = c != -1 && !Character.isWhitespace(c);
+        while (c != -1 && !Character.isWhitespace(c)) {
+            if (valid) {
+                if (c >= '0' && c <= '9') {
+                    try {
+                        result = Math.subtractExact(Math.multiplyExact(result, 10), c - '0');
+                    } catch (ArithmeticException e) {
+                        valid = false;
+                    }
+                } else {
+                    valid = false;
+                }
+            }
+            c = read();
+        }
+        if (!valid || (!negative && result == Long.MIN_VALUE)) {
+            throw new NumberFormatException("The word read is not a valid long");
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Reads the next whitespace-separated word as a double, accepting the same text as
+     * {@link Double#parseDouble(String)}. Plain decimal numbers which can be converted exactly are parsed directly;
+     * anything else is handed to {@link Double#parseDouble(String)}.
+     *
+     * @return the double read.
+     * @throws IOException                    if an error occurs reading from the stream or it ends before a word.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     * @throws NumberFormatException          if the word is not a valid double.
+     */
+    public double readDouble() throws IOException, SimulationInterruptedException {
+        readToken();
+        int length = token.length();
+        int i = 0;
+        boolean negative = false;
+        if (token.charAt(0) == '-' || token.charAt(0) == '+') {
+            negative = token.charAt(0) == '-';
+            ++i;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        boolean fraction = false;
+        for (; i < length; ++i) {
+            char c = token.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            anyDigits = true;
+            if (mantissa != 0 || c != '0') {
+                if (++significantDigits > MAX_EXACT_DIGITS) {
+                    return Double.parseDouble(token.toString());
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            if (fraction) {
+                --exponent;
+            }
+        }
+        if (!anyDigits) {
+            return Double.parseDouble(token.toString());
+        }
+
+        if (i < length && (token.charAt(i) == 'e' || token.charAt(i) == 'E')) {
+            ++i;
+            boolean negativeExponent = false;
+            if (i < length && (token.charAt(i) == '-' || token.charAt(i) == '+')) {
+                negativeExponent = token.charAt(i) == '-';
+                ++i;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < length && token.charAt(i) >= '0' && token.charAt(i) <= '9'; ++i) {
+                explicitExponent = explicitExponent * 10 + (token.charAt(i) - '0');
+                if (explicitExponent > EXACT_POWERS_OF_TEN.length * 2) {
+                    return Double.parseDouble(token.toString());
+                }
+            }
+            if (i == exponentStart) {
+                return Double.parseDouble(token.toString());
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != length) {
+            return Double.parseDouble(token.toString());
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (exponent <= -EXACT_POWERS_OF_TEN.length || exponent >= EXACT_POWERS_OF_TEN.length) {
+            return Double.parseDouble(token.toString());
+        }
+        // Both operands are exact, so the single rounding of the operation gives the correctly rounded result
+        double value = exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+                : mantissa * EXACT_POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+}
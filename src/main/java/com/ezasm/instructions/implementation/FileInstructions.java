@@ -0,0 +1,330 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.instructions.Instruction;
+import com.ezasm.instructions.targets.input.IAbstractInput;
+import com.ezasm.instructions.targets.inputoutput.IAbstractInputOutput;
+import com.ezasm.simulation.FileDescriptorTable;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.event.SimulatorEvent;
+import com.ezasm.simulation.exception.InvalidFileDescriptorException;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import com.ezasm.simulation.transform.Transformation;
+import com.ezasm.simulation.transform.TransformationSequence;
+import com.ezasm.simulation.transform.transformable.FileCursorTransformable;
+import com.ezasm.simulation.transform.transformable.FileDescriptorTransformable;
+import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
+import com.ezasm.simulation.transform.transformable.MemoryRangeTransformable;
+import com.ezasm.util.RawData;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * An implementation of instructions which open, close, and seek in files and read from or write to them by file
+ * descriptor. Descriptor 0 is standard input and descriptor 1 is standard output. Files are opened relative to the
+ * directory of the main program file and may not be outside of it.
+ */
+public class FileInstructions {
+
+    private final Simulator simulator;
+
+    public FileInstructions(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Gets the file descriptor given by an argument.
+     *
+     * @param input the file descriptor argument.
+     * @return the file descriptor.
+     * @throws SimulationException if there is an error reading the argument.
+     */
+    private long fd(IAbstractInput input) throws SimulationException {
+        return input.get(simulator).intValue();
+    }
+
+    /**
+     * Gets the directory which files are opened relative to.
+     *
+     * @return the directory of the main program file, or the working directory for code not loaded from a file.
+     */
+    private Path directory() {
+        String directory = simulator.getExecutionDirectory();
+        return Path.of(directory.isEmpty() ? System.getProperty("user.dir") : directory);
+    }
+
+    /**
+     * Opens the file whose name is the string at the given address with the mode given by the string at the other
+     * address, then stores its file descriptor.
+     *
+     * @param output the place to store the file descriptor.
+     * @param input1 the address of the name of the file.
+     * @param input2 the address of the mode: "r" to read, "w" to write, or "a" to append.
+     * @return the transformation sequence for the open.
+     * @throws SimulationException if the file cannot be opened.
+     */
+    @Instruction
+    public TransformationSequence open(IAbstractInputOutput output, IAbstractInput input1, IAbstractInput input2)
+            throws SimulationException {
+        String name = simulator.getMemory().readString((int) input1.get(simulator).intValue());
+        String mode = simulator.getMemory().readString((int) input2.get(simulator).intValue());
+        FileDescriptorTable.Descriptor replaced = simulator.getFiles().find(simulator.getFiles().nextDescriptor());
+        int fd = simulator.getFiles().open(name, mode, directory());
+
+        FileDescriptorTransformable f = new FileDescriptorTransformable(simulator, fd, replaced);
+        InputOutputTransformable io = new InputOutputTransformable(simulator, output);
+        return new TransformationSequence(f.transformation(new RawData(1)), io.transformation(new RawData(fd)));
+    }
+
+    /**
+     * Closes the given file descriptor.
+     *
+     * @param input1 the file descriptor.
+     * @return the transformation sequence for the close.
+     * @throws SimulationException if the descriptor does not refer to a file opened by the program.
+     */
+    @Instruction
+    public TransformationSequence close(IAbstractInput input1) throws SimulationException {
+        long fd = fd(input1);
+        if (fd == FileDescriptorTable.STANDARD_INPUT || fd == FileDescriptorTable.STANDARD_OUTPUT
+                || !simulator.getFiles().isOpen(fd)) {
+            throw new InvalidFileDescriptorException(fd);
+        }
+        FileDescriptorTransformable f = new FileDescriptorTransformable(simulator, fd, true);
+        return new TransformationSequence(f.transformation(new RawData(0)));
+    }
+
+    /**
+     * Moves the position in the given file descriptor at which the next byte will be read or written.
+     *
+     * @param input1 the file descriptor.
+     * @param input2 the new position.
+     * @return the transformation sequence for the seek.
+     * @throws SimulationException if the descriptor is not open or cannot seek to the position.
+     */
+    @Instruction
+    public TransformationSequence seek(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        long fd = fd(input1);
+        long position = input2.get(simulator).intValue();
+        if (position < 0) {
+            throw new SimulationException(String.format("Cannot seek to position %d", position));
+        }
+        FileCursorTransformable f = new FileCursorTransformable(simulator, fd, simulator.getFiles().position(fd));
+        return new TransformationSequence(f.transformation(new RawData(position)));
+    }
+
+    /**
+     * Stores the position in the given file descriptor at which the next byte will be read or written.
+     *
+     * @param output the place to store the position.
+     * @param input1 the file descriptor.
+     * @return the transformation sequence for storing the position.
+     * @throws SimulationException if the descriptor is not open.
+     */
+    @Instruction
+    public TransformationSequence tell(IAbstractInputOutput output, IAbstractInput input1) throws SimulationException {
+        long position = simulator.getFiles().position(fd(input1));
+        InputOutputTransformable io = new InputOutputTransformable(simulator, output);
+        return new TransformationSequence(io.transformation(new RawData(position)));
+    }
+
+    private interface StreamReader {
+        RawData read(StreamManager streams) throws SimulationException, SimulationInterruptedException;
+    }
+
+    private TransformationSequence read(IAbstractInputOutput output, IAbstractInput input1, StreamReader reader)
+            throws SimulationException, SimulationInterruptedException {
+        long fd = fd(input1);
+        StreamManager streams = simulator.getFiles().input(fd);
+        FileCursorTransformable f = new FileCursorTransformable(simulator, fd, streams.getCursor());
+        InputOutputTransformable io = new InputOutputTransformable(simulator, output);
+        RawData data = reader.read(streams);
+        Transformation t1 = f.transformation(new RawData(streams.getCursor()));
+        Transformation t2 = io.transformation(data);
+        return new TransformationSequence(t1, t2);
+    }
+
+    @Instruction
+    public TransformationSequence freadi(IAbstractInputOutput output, IAbstractInput input1)
+            throws SimulationException, SimulationInterruptedException {
+        return read(output, input1, streams -> new RawData(streams.readLong()));
+    }
+
+    @Instruction
+    public TransformationSequence freadf(IAbstractInputOutput output, IAbstractInput input1)
+            throws SimulationException, SimulationInterruptedException {
+        return read(output, input1, streams -> new RawData(streams.readDouble()));
+    }
+
+    @Instruction
+    public TransformationSequence freadc(IAbstractInputOutput output, IAbstractInput input1)
+            throws SimulationException, SimulationInterruptedException {
+        return read(output, input1, streams -> new RawData(streams.readChar()));
+    }
+
+    private interface StringReader {
+        String read(StreamManager streams) throws SimulationException, SimulationInterruptedException;
+    }
+
+    /**
+     * Reads a string from the given file descriptor and writes up to the given number of its characters to memory
+     * followed by a null terminator, recorded as a single range of memory along with the move of the file's position. A
+     * negative maximum consumes the string without writing anything, not even the terminator.
+     *
+     * @param input1    the file descriptor.
+     * @param input2    the address to write the string to.
+     * @param maxLength the maximum number of characters to write, or negative to write nothing.
+     * @param reader    the way to read the string.
+     * @return the transformation sequence for the read.
+     */
+    private TransformationSequence readString(IAbstractInput input1, IAbstractInput input2, long maxLength,
+            StringReader reader) throws SimulationException, SimulationInterruptedException {
+        long fd = fd(input1);
+        int address = (int) input2.get(simulator).intValue();
+        StreamManager streams = simulator.getFiles().input(fd);
+        FileCursorTransformable f = new FileCursorTransformable(simulator, fd, streams.getCursor());
+        String string = reader.read(streams);
+        Transformation t1 = f.transformation(new RawData(streams.getCursor()));
+        if (maxLength < 0) {
+            return new TransformationSequence(t1);
+        }
+
+        int length = (int) Math.min(maxLength, string.length());
+        byte[] bytes = simulator.getMemory().encodeString(string, length);
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, address, bytes.length);
+        return new TransformationSequence(t1, m.transformation(new RawData(bytes)));
+    }
+
+    @Instruction
+    public TransformationSequence freads(IAbstractInput input1, IAbstractInput input2)
+            throws SimulationException, SimulationInterruptedException {
+        return readString(input1, input2, Integer.MAX_VALUE, StreamManager::readString);
+    }
+
+    @Instruction
+    public TransformationSequence freads(IAbstractInput input1, IAbstractInput input2, IAbstractInput input3)
+            throws SimulationException, SimulationInterruptedException {
+        // The maximum size includes the null terminator, so a maximum of 0 writes nothing, as with reads
+        return readString(input1, input2, input3.get(simulator).intValue() - 1, StreamManager::readString);
+    }
+
+    @Instruction
+    public TransformationSequence freadln(IAbstractInput input1, IAbstractInput input2)
+            throws SimulationException, SimulationInterruptedException {
+        return readString(input1, input2, Integer.MAX_VALUE, StreamManager::readLine);
+    }
+
+    @Instruction
+    public TransformationSequence freadln(IAbstractInput input1, IAbstractInput input2, IAbstractInput input3)
+            throws SimulationException, SimulationInterruptedException {
+        return readString(input1, input2, Math.max(0, input3.get(simulator).intValue()), StreamManager::readLine);
+    }
+
+    /**
+     * Reads the given number of raw bytes from the given file descriptor directly into memory.
+     *
+     * @param input1 the file descriptor.
+     * @param input2 the address to write the bytes to.
+     * @param input3 the number of bytes to read.
+     * @return the transformation sequence for the read.
+     * @throws SimulationException            if the descriptor is not open for reading, the range cannot be written, or
+     *                                        the file ends before all bytes are read.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    @Instruction
+    public TransformationSequence freadb(IAbstractInput input1, IAbstractInput input2, IAbstractInput input3)
+            throws SimulationException, SimulationInterruptedException {
+        long fd = fd(input1);
+        int address = (int) input2.get(simulator).intValue();
+        int length = MemoryInstructions.byteCount(simulator, input3);
+        StreamManager streams = simulator.getFiles().input(fd);
+        // Check before consuming any input
+        simulator.getMemory().checkWritable(address, length);
+
+        FileCursorTransformable f = new FileCursorTransformable(simulator, fd, streams.getCursor());
+        byte[] bytes = streams.readBytes(length);
+        Transformation t1 = f.transformation(new RawData(streams.getCursor()));
+        if (length == 0) {
+            return new TransformationSequence(t1);
+        }
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, address, length);
+        return new TransformationSequence(t1, m.transformation(new RawData(bytes)));
+    }
+
+    /**
+     * Reports text written to standard output through a file descriptor to any listeners.
+     *
+     * @param fd   the file descriptor written to.
+     * @param text the text written.
+     */
+    private void outputProduced(long fd, String text) {
+        if (fd == FileDescriptorTable.STANDARD_OUTPUT
+                && simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(text);
+        }
+    }
+
+    @Instruction
+    public TransformationSequence fprinti(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        long fd = fd(input1);
+        long value = input2.get(simulator).intValue();
+        simulator.getFiles().output(fd).write(value);
+        outputProduced(fd, String.valueOf(value));
+        return new TransformationSequence();
+    }
+
+    @Instruction
+    public TransformationSequence fprintf(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        long fd = fd(input1);
+        double value = input2.get(simulator).floatValue();
+        simulator.getFiles().output(fd).write(value);
+        outputProduced(fd, String.valueOf(value));
+        return new TransformationSequence();
+    }
+
+    @Instruction
+    public TransformationSequence fprintc(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        long fd = fd(input1);
+        char value = (char) input2.get(simulator).intValue();
+        simulator.getFiles().output(fd).write(value);
+        outputProduced(fd, String.valueOf(value));
+        return new TransformationSequence();
+    }
+
+    @Instruction
+    public TransformationSequence fprints(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        long fd = fd(input1);
+        String value = simulator.getMemory().readString((int) input2.get(simulator).intValue());
+        simulator.getFiles().output(fd).write(value);
+        outputProduced(fd, value);
+        return new TransformationSequence();
+    }
+
+    /**
+     * Writes the given number of raw bytes from memory directly to the given file descriptor.
+     *
+     * @param input1 the file descriptor.
+     * @param input2 the address of the bytes to write.
+     * @param input3 the number of bytes to write.
+     * @return the empty transformation sequence.
+     * @throws SimulationException if the descriptor is not open for writing, the range cannot be read, or the length is
+     *                             negative.
+     */
+    @Instruction
+    public TransformationSequence fwriteb(IAbstractInput input1, IAbstractInput input2, IAbstractInput input3)
+            throws SimulationException {
+        long fd = fd(input1);
+        int address = (int) input2.get(simulator).intValue();
+        int length = MemoryInstructions.byteCount(simulator, input3);
+        StreamManager streams = simulator.getFiles().output(fd);
+        if (length == 0) {
+            return new TransformationSequence();
+        }
+        byte[] bytes = simulator.getMemory().read(address, length).data();
+        streams.write(bytes);
+        outputProduced(fd, new String(bytes, StandardCharsets.ISO_8859_1));
+        return new TransformationSequence();
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.ezasm.instructions.implementation;
 
 import com.ezasm.instructions.Instruction;
+import com.ezasm.instructions.intrinsics.Intrinsic;
+import com.ezasm.instructions.intrinsics.Intrinsics;
 import com.ezasm.instructions.targets.input.IAbstractInput;
 import com.ezasm.instructions.targets.input.LabelReferenceInput;
 import com.ezasm.instructions.targets.inputoutput.RegisterInputOutput;
@@ -54,13 +56,22 @@ public class FunctionInstructions {
 
     /**
      * The jump and link operation: sets the PC to the given line number and stores the return address. Stores the
-     * previous return address onto the stack.
+     * previous return address onto the stack. If intrinsics are enabled and the label names one which the program does
+     * not define itself, runs the intrinsic in place of the call and its return.
      *
      * @param input the line to jump to.
      * @throws SimulationException if there is an error in accessing the simulation.
      */
     @Instruction
     public TransformationSequence call(IAbstractInput input) throws SimulationException {
+        if (input instanceof LabelReferenceInput l && simulator.isIntrinsicsEnabled()
+                && !simulator.getLabelToFileIdAndLineNumber().containsKey(l.getLabel())) {
+            Intrinsic intrinsic = Intrinsics.getIntrinsic(l.getLabel());
+            if (intrinsic != null) {
+                return intrinsic.invoke(simulator);
+            }
+        }
+
         RegisterInputOutput ra = new RegisterInputOutput(Registers.RA);
         InputOutputTransformable raio = new InputOutputTransformable(simulator, ra);
         RegisterInputOutput fi = new RegisterInputOutput(Registers.FID);
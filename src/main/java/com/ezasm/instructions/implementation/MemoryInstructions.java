@@ -9,11 +9,14 @@ import com.ezasm.simulation.*;
 import com.ezasm.simulation.exception.SimulationException;
 import com.ezasm.simulation.transform.Transformation;
 import com.ezasm.simulation.transform.TransformationSequence;
-import com.ezasm.simulation.transform.transformable.HeapPointerTransformable;
+import com.ezasm.simulation.transform.transformable.HeapBlockTransformable;
 import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
+import com.ezasm.simulation.transform.transformable.MemoryRangeTransformable;
 import com.ezasm.simulation.transform.transformable.MemoryTransformable;
 import com.ezasm.util.RawData;
 
+import java.util.Arrays;
+
 /**
  * An implementation of memory manipulation instructions for the simulation.
  */
@@ -102,20 +105,236 @@ public class MemoryInstructions {
         return new TransformationSequence(io.transformation(input.get(simulator)));
     }
 
+    /**
+     * Loads the given number of bytes from memory, extending them to a full word.
+     *
+     * @param output the place to store the loaded value.
+     * @param input  the address to load from.
+     * @param size   the number of bytes to load.
+     * @param signed true to extend the sign of the loaded value, false to fill with zeroes.
+     * @return the transformation sequence for the load.
+     * @throws SimulationException if the bytes cannot be read.
+     */
+    private TransformationSequence loadSubWord(IAbstractInputOutput output, DereferenceInputOutput input, int size,
+            boolean signed) throws SimulationException {
+        byte[] bytes = simulator.getMemory().read(input.address(simulator), size).data();
+        long value = signed ? bytes[0] : bytes[0] & 0xFF;
+        for (int i = 1; i < size; ++i) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        InputOutputTransformable io = new InputOutputTransformable(simulator, output);
+        return new TransformationSequence(io.transformation(new RawData(value)));
+    }
+
+    /**
+     * Stores the low bytes of a value to memory.
+     *
+     * @param input  the value to store.
+     * @param output the address to store to.
+     * @param size   the number of bytes to store.
+     * @return the transformation sequence for the store.
+     * @throws SimulationException if the bytes cannot be written.
+     */
+    private TransformationSequence storeSubWord(IAbstractInput input, DereferenceInputOutput output, int size)
+            throws SimulationException {
+        long value = input.get(simulator).intValue();
+        byte[] bytes = new byte[size];
+        for (int i = size - 1; i >= 0; --i, value >>= 8) {
+            bytes[i] = (byte) value;
+        }
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, output.address(simulator), size);
+        return new TransformationSequence(m.transformation(new RawData(bytes)));
+    }
+
+    @Instruction
+    public TransformationSequence loadb(IAbstractInputOutput output, DereferenceInputOutput input)
+            throws SimulationException {
+        return loadSubWord(output, input, 1, true);
+    }
+
+    @Instruction
+    public TransformationSequence loadbu(IAbstractInputOutput output, DereferenceInputOutput input)
+            throws SimulationException {
+        return loadSubWord(output, input, 1, false);
+    }
+
+    @Instruction
+    public TransformationSequence loadh(IAbstractInputOutput output, DereferenceInputOutput input)
+            throws SimulationException {
+        return loadSubWord(output, input, 2, true);
+    }
+
+    @Instruction
+    public TransformationSequence loadhu(IAbstractInputOutput output, DereferenceInputOutput input)
+            throws SimulationException {
+        return loadSubWord(output, input, 2, false);
+    }
+
+    @Instruction
+    public TransformationSequence storeb(IAbstractInput input, DereferenceInputOutput output)
+            throws SimulationException {
+        return storeSubWord(input, output, 1);
+    }
+
+    @Instruction
+    public TransformationSequence storeh(IAbstractInput input, DereferenceInputOutput output)
+            throws SimulationException {
+        return storeSubWord(input, output, 2);
+    }
+
+    /**
+     * Allocates a block of the given number of bytes on the heap, reusing freed memory when a free block fits, and
+     * stores its address. Allocating 0 bytes stores the heap pointer without allocating a block.
+     *
+     * @param output the place to store the address of the block.
+     * @param input  the number of bytes to allocate.
+     * @return the transformation sequence for the allocation.
+     * @throws SimulationException if the size is negative or there is not enough memory.
+     */
     @Instruction
     public TransformationSequence alloc(IAbstractInputOutput output, IAbstractInput input) throws SimulationException {
-        HeapPointerTransformable h = new HeapPointerTransformable(simulator);
+        int size = byteCount(simulator, input);
         InputOutputTransformable io = new InputOutputTransformable(simulator, output);
-        Transformation t1 = new Transformation(h, h.get(),
-                new RawData(h.get().intValue() + input.get(simulator).intValue()));
-        Transformation t2 = io.transformation(t1.from());
+        if (size == 0) {
+            return new TransformationSequence(
+                    io.transformation(new RawData(simulator.getMemory().currentHeapPointer())));
+        }
+        int address = simulator.getHeap().findFit(size);
+        HeapBlockTransformable h = new HeapBlockTransformable(simulator, address);
+        Transformation t1 = new Transformation(h, new RawData(0), new RawData(size));
+        Transformation t2 = io.transformation(new RawData(address));
         return new TransformationSequence(t1, t2);
     }
 
+    /**
+     * Frees the block allocated at the given address so that its memory can be allocated again.
+     *
+     * @param input the address of the block.
+     * @return the transformation sequence for freeing the block.
+     * @throws SimulationException if no block is allocated at the address.
+     */
+    @Instruction
+    public TransformationSequence free(IAbstractInput input) throws SimulationException {
+        int address = (int) input.get(simulator).intValue();
+        int size = simulator.getHeap().sizeOf(address);
+        if (size == 0) {
+            throw new SimulationException(String.format("Address %d is not the start of an allocated block", address));
+        }
+        HeapBlockTransformable h = new HeapBlockTransformable(simulator, address);
+        return new TransformationSequence(new Transformation(h, new RawData(size), new RawData(0)));
+    }
+
+    /**
+     * Resizes the block allocated at the given address and stores its new address. The block stays in place if the
+     * memory following it is free; otherwise a new block is allocated, the contents are copied to it, and the old block
+     * is freed.
+     *
+     * @param output the place to store the new address of the block.
+     * @param input1 the address of the block.
+     * @param input2 the new number of bytes of the block.
+     * @return the transformation sequence for the resize.
+     * @throws SimulationException if no block is allocated at the address, the size is not positive, or there is not
+     *                             enough memory.
+     */
+    @Instruction
+    public TransformationSequence realloc(IAbstractInputOutput output, IAbstractInput input1, IAbstractInput input2)
+            throws SimulationException {
+        int address = (int) input1.get(simulator).intValue();
+        int size = byteCount(simulator, input2);
+        HeapAllocator heap = simulator.getHeap();
+        int oldSize = heap.sizeOf(address);
+        if (oldSize == 0) {
+            throw new SimulationException(String.format("Address %d is not the start of an allocated block", address));
+        } else if (size == 0) {
+            throw new SimulationException("Cannot resize a block to 0 bytes");
+        }
+
+        HeapBlockTransformable oldBlock = new HeapBlockTransformable(simulator, address);
+        InputOutputTransformable io = new InputOutputTransformable(simulator, output);
+        if (heap.canResize(address, size)) {
+            Transformation t1 = new Transformation(oldBlock, new RawData(oldSize), new RawData(0));
+            Transformation t2 = new Transformation(oldBlock, new RawData(0), new RawData(size));
+            return new TransformationSequence(t1, t2, io.transformation(new RawData(address)));
+        }
+
+        int newAddress = heap.findFit(size);
+        HeapBlockTransformable newBlock = new HeapBlockTransformable(simulator, newAddress);
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, newAddress, oldSize);
+        Transformation t1 = new Transformation(newBlock, new RawData(0), new RawData(size));
+        Transformation t2 = m.transformation(simulator.getMemory().read(address, oldSize));
+        Transformation t3 = new Transformation(oldBlock, new RawData(oldSize), new RawData(0));
+        return new TransformationSequence(t1, t2, t3, io.transformation(new RawData(newAddress)));
+    }
+
     @Instruction
     public TransformationSequence move(IAbstractInputOutput output, IAbstractInput input) throws SimulationException {
         InputOutputTransformable io = new InputOutputTransformable(simulator, output);
         return new TransformationSequence(io.transformation(input.get(simulator)));
     }
 
+    /**
+     * Copies a range of bytes from one place in memory to another. The ranges may overlap. The whole destination range
+     * is recorded as a single transformation.
+     *
+     * @param destination the address to copy the bytes to.
+     * @param source      the address to copy the bytes from.
+     * @param length      the number of bytes to copy.
+     * @return the transformation sequence for this copy.
+     * @throws SimulationException if the length is negative or either range is out of bounds, or if the destination
+     *                             range includes read-only memory.
+     */
+    @Instruction
+    public TransformationSequence memcpy(IAbstractInput destination, IAbstractInput source, IAbstractInput length)
+            throws SimulationException {
+        int count = byteCount(simulator, length);
+        if (count == 0) {
+            return new TransformationSequence();
+        }
+        RawData bytes = simulator.getMemory().read((int) source.get(simulator).intValue(), count);
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator,
+                (int) destination.get(simulator).intValue(), count);
+        return new TransformationSequence(m.transformation(bytes));
+    }
+
+    /**
+     * Sets every byte of a range of memory to the lowest byte of the given value. The whole range is recorded as a
+     * single transformation.
+     *
+     * @param destination the address of the first byte to set.
+     * @param value       the value whose lowest byte is written.
+     * @param length      the number of bytes to set.
+     * @return the transformation sequence for this fill.
+     * @throws SimulationException if the length is negative, or if the range is out of bounds or includes read-only
+     *                             memory.
+     */
+    @Instruction
+    public TransformationSequence memset(IAbstractInput destination, IAbstractInput value, IAbstractInput length)
+            throws SimulationException {
+        int count = byteCount(simulator, length);
+        if (count == 0) {
+            return new TransformationSequence();
+        }
+        byte[] bytes = new byte[count];
+        Arrays.fill(bytes, (byte) value.get(simulator).intValue());
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator,
+                (int) destination.get(simulator).intValue(), count);
+        return new TransformationSequence(m.transformation(new RawData(bytes)));
+    }
+
+    /**
+     * Gets the number of bytes given by a length argument.
+     *
+     * @param simulator the simulator to read the argument from.
+     * @param length    the length argument.
+     * @return the number of bytes.
+     * @throws SimulationException if the length is negative or larger than any range of memory.
+     */
+    static int byteCount(Simulator simulator, IAbstractInput length) throws SimulationException {
+        long count = length.get(simulator).intValue();
+        if (count < 0 || count > simulator.getMemory().size()) {
+            throw new SimulationException(String.format("Invalid number of bytes: %d", count));
+        }
+        return (int) count;
+    }
+
 }
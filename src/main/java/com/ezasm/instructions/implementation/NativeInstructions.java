@@ -0,0 +1,112 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.instructions.Instruction;
+import com.ezasm.instructions.host.DispatchHostFunction;
+import com.ezasm.instructions.host.HostFunctionRegistry;
+import com.ezasm.instructions.targets.IAbstractTarget;
+import com.ezasm.instructions.targets.input.HostFunctionInput;
+import com.ezasm.instructions.targets.input.IAbstractInput;
+import com.ezasm.instructions.targets.input.StringInput;
+import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.TransformationSequence;
+
+/**
+ * An implementation of the instruction which calls host functions loaded from plugins on the classpath.
+ */
+public class NativeInstructions {
+
+    private final Simulator simulator;
+
+    /**
+     * Some instructions require access to the Simulator directly, so that is provided.
+     *
+     * @param simulator the provided Simulator.
+     */
+    public NativeInstructions(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Binds the name of the host function of a line of the {@code native} instruction to the overload of the host
+     * function resolved for the other arguments, so that it is resolved only once when the line is loaded.
+     *
+     * @param arguments the parsed arguments of the line.
+     * @return the arguments with the name replaced by the bound host function.
+     * @throws ParseException if no overload of the host function matches the arguments.
+     */
+    public static IAbstractTarget[] bindHostFunction(IAbstractTarget[] arguments) throws ParseException {
+        if (arguments.length == 0 || !(arguments[0] instanceof StringInput name)) {
+            return arguments;
+        }
+        Class<?>[] types = new Class<?>[arguments.length - 1];
+        for (int i = 1; i < arguments.length; ++i) {
+            if (!(arguments[i] instanceof IAbstractInput)) {
+                return arguments;
+            }
+            types[i - 1] = arguments[i].getClass();
+        }
+        DispatchHostFunction function = HostFunctionRegistry.getHostFunction(name.getString(), types);
+        if (function == null) {
+            throw new ParseException(String.format("Host function %s could not be matched for the given %d argument(s)",
+                    name.getString(), types.length));
+        }
+        IAbstractTarget[] bound = arguments.clone();
+        bound[0] = new HostFunctionInput(name.getString(), function);
+        return bound;
+    }
+
+    /**
+     * Calls the host function with the given name and no arguments.
+     *
+     * @param name the name of the host function, bound to its resolved overload.
+     * @throws SimulationException if the host function fails.
+     */
+    @Instruction
+    public TransformationSequence _native(HostFunctionInput name) throws SimulationException {
+        return name.getFunction().invoke(simulator, new IAbstractInput[] {});
+    }
+
+    /**
+     * Calls the host function with the given name and argument.
+     *
+     * @param name the name of the host function, bound to its resolved overload.
+     * @param a    the first argument.
+     * @throws SimulationException if the host function fails.
+     */
+    @Instruction
+    public TransformationSequence _native(HostFunctionInput name, IAbstractInput a) throws SimulationException {
+        return name.getFunction().invoke(simulator, new IAbstractInput[] { a });
+    }
+
+    /**
+     * Calls the host function with the given name and arguments.
+     *
+     * @param name the name of the host function, bound to its resolved overload.
+     * @param a    the first argument.
+     * @param b    the second argument.
+     * @throws SimulationException if the host function fails.
+     */
+    @Instruction
+    public TransformationSequence _native(HostFunctionInput name, IAbstractInput a, IAbstractInput b)
+            throws SimulationException {
+        return name.getFunction().invoke(simulator, new IAbstractInput[] { a, b });
+    }
+
+    /**
+     * Calls the host function with the given name and arguments.
+     *
+     * @param name the name of the host function, bound to its resolved overload.
+     * @param a    the first argument.
+     * @param b    the second argument.
+     * @param c    the third argument.
+     * @throws SimulationException if the host function fails.
+     */
+    @Instruction
+    public TransformationSequence _native(HostFunctionInput name, IAbstractInput a, IAbstractInput b, IAbstractInput c)
+            throws SimulationException {
+        return name.getFunction().invoke(simulator, new IAbstractInput[] { a, b, c });
+    }
+
+}
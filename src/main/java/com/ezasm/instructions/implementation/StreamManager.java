@@ -2,7 +2,8 @@ package com.ezasm.instructions.implementation;
 
 import com.ezasm.simulation.exception.SimulationException;
 import com.ezasm.simulation.exception.SimulationInterruptedException;
-import com.ezasm.util.RandomAccessFileStream;
+import com.ezasm.util.MappedFileStream;
+import com.ezasm.util.Seekable;
 
 import java.io.*;
 
@@ -12,8 +13,8 @@ import java.io.*;
 public class StreamManager {
 
     private InputStream inputStream;
+    private BufferedTokenReader reader;
     private OutputStream outputStream;
-    private long cursorPosition;
 
     private PrintStream outputWriter;
 
@@ -35,6 +36,7 @@ public class StreamManager {
      */
     public void setInputStream(InputStream inputStream) {
         this.inputStream = inputStream;
+        this.reader = new BufferedTokenReader(inputStream);
     }
 
     /**
@@ -43,16 +45,41 @@ public class StreamManager {
      * @param outputStream the new output stream to use.
      */
     public void setOutputStream(OutputStream outputStream) {
-        this.cursorPosition = 0;
+        setOutputStream(outputStream, true);
+    }
+
+    /**
+     * Sets the output stream being used by this object to write to.
+     *
+     * @param outputStream the new output stream to use.
+     * @param autoFlush    whether to flush the output stream whenever a newline is written. Output is always flushed
+     *                     before reading input.
+     */
+    public void setOutputStream(OutputStream outputStream, boolean autoFlush) {
         this.outputStream = outputStream;
-        this.outputWriter = new PrintStream(this.outputStream, true);
+        this.outputWriter = new PrintStream(this.outputStream, autoFlush);
+    }
+
+    /**
+     * Flushes everything written to the output stream so far.
+     */
+    public void flushOutput() {
+        outputWriter.flush();
     }
 
     /**
-     * Resets the state of the input stream.
+     * Resets the state of the input stream. A mapped file is mapped again so that edits made to it since the last run
+     * are read.
      */
     public void resetInputStream() throws SimulationException {
-        if (inputStream instanceof RandomAccessFileStream f) {
+        if (inputStream instanceof MappedFileStream f) {
+            try {
+                f.remap();
+            } catch (IOException e) {
+                throw new SimulationException("Unable to reopen the input file");
+            }
+            setInputStream(f);
+        } else if (inputStream instanceof Seekable) {
             moveCursor(0);
         } else {
             clearBuffer();
@@ -64,8 +91,7 @@ public class StreamManager {
      */
     private void clearBuffer() {
         try {
-            inputStream.skipNBytes(inputStream.available());
-            setInputStream(inputStream);
+            reader.discard();
         } catch (Exception ignored) { // we probably do not need to worry about this case
         }
     }
@@ -76,11 +102,9 @@ public class StreamManager {
      * @param nextPosition the new position to seek to.
      */
     public void moveCursor(long nextPosition) throws SimulationException {
-        if (inputStream instanceof RandomAccessFileStream fileReader) {
+        if (inputStream instanceof Seekable) {
             try {
-                fileReader.seek(nextPosition);
-                cursorPosition = nextPosition;
-                setInputStream(inputStream);
+                reader.seek(nextPosition);
             } catch (IOException e) {
                 throw new SimulationException("Unable to seek to new location");
             }
@@ -93,7 +117,7 @@ public class StreamManager {
      * @return the cursor's position within the currently open file if it exists, 0 otherwise.
      */
     public long getCursor() {
-        return cursorPosition;
+        return reader.getPosition();
     }
 
     /**
@@ -139,119 +163,30 @@ public class StreamManager {
     }
 
     /**
-     * Writes a string to the output stream.
-     *
-     * @param s the string to write.
-     * @throws SimulationException if an error occurs in writing the character.
-     */
-    public void write(String s) throws SimulationException {
-        try {
-            outputWriter.print(s);
-        } catch (Exception e) {
-            throw new SimulationException("Unable to write string");
-        }
-    }
-
-    /**
-     * Walks the stream forward until it reaches a non-whitespace character, then returns the character. The cursor is
-     * then pointed at the character after the first non-whitespace character found.
-     *
-     * @return the first non-whitespace character found.
-     * @throws SimulationException            if an error occurs reading from the stream or if it ends while seeking a
-     *                                        char.
-     * @throws SimulationInterruptedException if an interrupt occurs while executing.
-     */
-    private char walkChar() throws SimulationException, SimulationInterruptedException {
-        try {
-            int c;
-            do {
-                c = inputStream.read();
-                SimulationInterruptedException.handleInterrupts();
-                ++cursorPosition;
-            } while (Character.isWhitespace(c));
-            if (c == -1) {
-                throw new SimulationException("Reached the end of file while reading");
-            }
-            return (char) c;
-        } catch (SimulationInterruptedException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new SimulationException("Unable to read from input stream");
-        }
-    }
-
-    /**
-     * Walks te stream forward through whitespace until it reaches a string "word", then returns the string.
+     * Writes raw bytes to the output stream.
      *
-     * @return the word string found.
-     * @throws SimulationException            if an error occurs reading from the stream of if it ends while seeking a
-     *                                        word.
-     * @throws SimulationInterruptedException if an interrupt occurs while executing.
+     * @param bytes the bytes to write.
+     * @throws SimulationException if an error occurs in writing the bytes.
      */
-    private String walkWord() throws SimulationException, SimulationInterruptedException {
+    public void write(byte[] bytes) throws SimulationException {
         try {
-            StringBuilder sb = new StringBuilder();
-            int c;
-            do {
-                c = inputStream.read();
-                SimulationInterruptedException.handleInterrupts();
-                ++cursorPosition;
-            } while (Character.isWhitespace(c));
-            if (c == -1) {
-                throw new SimulationException("Reached the end of file while reading");
-            }
-            do {
-                sb.append((char) c);
-                c = inputStream.read();
-                SimulationInterruptedException.handleInterrupts();
-                ++cursorPosition;
-            } while (!Character.isWhitespace(c) && c != -1);
-
-            return sb.toString();
-        } catch (SimulationInterruptedException e) {
-            throw e;
+            outputWriter.write(bytes, 0, bytes.length);
         } catch (Exception e) {
-            throw new SimulationException("Unable to read from input stream");
+            throw new SimulationException("Unable to write bytes");
         }
     }
 
     /**
-     * Walks te stream forward through until it reaches the end-of-line sequence, then returns the read string.
+     * Writes a string to the output stream.
      *
-     * @return the line string found.
-     * @throws SimulationException            if an error occurs reading from the stream of if it ends while seeking a
-     *                                        word.
-     * @throws SimulationInterruptedException if an interrupt occurs while executing.
+     * @param s the string to write.
+     * @throws SimulationException if an error occurs in writing the character.
      */
-    private String walkLine() throws SimulationException, SimulationInterruptedException {
-        String eol = "\n";
-        // the EOL delimiter is assumed to be of at least length 1
+    public void write(String s) throws SimulationException {
         try {
-            StringBuilder sb = new StringBuilder();
-            int c = inputStream.read();
-            SimulationInterruptedException.handleInterrupts();
-            if (c == -1) {
-                throw new SimulationException("Reached the end of file while reading");
-            } else {
-                sb.append((char) c);
-            }
-            while (c != -1) {
-                c = inputStream.read();
-                SimulationInterruptedException.handleInterrupts();
-                ++cursorPosition;
-                sb.append((char) c);
-
-                // Check if reached full newline signal
-                if (sb.length() >= eol.length() && sb.substring(sb.length() - eol.length()).equals(eol)) {
-                    break;
-                }
-            }
-
-            return sb.toString();
-        } catch (SimulationInterruptedException e) {
-            throw e;
+            outputWriter.print(s);
         } catch (Exception e) {
-            throw new SimulationException("Unable to read from input stream");
+            throw new SimulationException("Unable to write string");
         }
     }
 
@@ -264,8 +199,9 @@ public class StreamManager {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public long readLong() throws SimulationException, SimulationInterruptedException {
+        flushOutput();
         try {
-            return Long.parseLong(walkWord());
+            return reader.readLong();
         } catch (SimulationInterruptedException e) {
             throw e;
         } catch (Exception e) {
@@ -282,8 +218,9 @@ public class StreamManager {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public double readDouble() throws SimulationException, SimulationInterruptedException {
+        flushOutput();
         try {
-            return Double.parseDouble(walkWord());
+            return reader.readDouble();
         } catch (SimulationInterruptedException e) {
             throw e;
         } catch (Exception e) {
@@ -299,8 +236,9 @@ public class StreamManager {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public char readChar() throws SimulationException, SimulationInterruptedException {
+        flushOutput();
         try {
-            return walkChar();
+            return reader.readChar();
         } catch (SimulationInterruptedException e) {
             throw e;
         } catch (Exception e) {
@@ -316,8 +254,9 @@ public class StreamManager {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public String readString() throws SimulationException, SimulationInterruptedException {
+        flushOutput();
         try {
-            return walkWord();
+            return reader.readWord();
         } catch (SimulationInterruptedException e) {
             throw e;
         } catch (Exception e) {
@@ -325,6 +264,31 @@ public class StreamManager {
         }
     }
 
+    /**
+     * Reads exactly the given number of raw bytes from the input stream.
+     *
+     * @param count the number of bytes to read.
+     * @return the bytes read from the input stream.
+     * @throws SimulationException            if there was an error reading from the stream or it ended first.
+     * @throws SimulationInterruptedException if an interrupt occurs while executing.
+     */
+    public byte[] readBytes(int count) throws SimulationException, SimulationInterruptedException {
+        flushOutput();
+        byte[] bytes = new byte[count];
+        int read;
+        try {
+            read = reader.readBytes(bytes, 0, count);
+        } catch (SimulationInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SimulationException("Unable to read bytes");
+        }
+        if (read < count) {
+            throw new SimulationException("Reached the end of file while reading");
+        }
+        return bytes;
+    }
+
     /**
      * Reads from the input stream until it reaches the end-of-line symbol.
      *
@@ -333,8 +297,9 @@ public class StreamManager {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public String readLine() throws SimulationException, SimulationInterruptedException {
+        flushOutput();
         try {
-            return walkLine();
+            return reader.readLine();
         } catch (SimulationInterruptedException e) {
             throw e;
         } catch (Exception e) {
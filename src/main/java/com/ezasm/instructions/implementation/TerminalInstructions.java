@@ -1,15 +1,16 @@
 package com.ezasm.instructions.implementation;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 import com.ezasm.instructions.targets.inputoutput.IAbstractInputOutput;
-import com.ezasm.simulation.Memory;
+import com.ezasm.simulation.event.SimulatorEvent;
 import com.ezasm.simulation.exception.SimulationInterruptedException;
 import com.ezasm.simulation.transform.Transformation;
 import com.ezasm.simulation.transform.TransformationSequence;
 import com.ezasm.simulation.transform.transformable.FileReadTransformable;
 import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
-import com.ezasm.simulation.transform.transformable.MemoryTransformable;
+import com.ezasm.simulation.transform.transformable.MemoryRangeTransformable;
 import com.ezasm.instructions.Instruction;
 import com.ezasm.instructions.targets.input.IAbstractInput;
 import com.ezasm.simulation.Simulator;
@@ -45,50 +46,59 @@ public class TerminalInstructions {
 
     @Instruction
     public TransformationSequence printi(IAbstractInput input) throws SimulationException {
-        streams.write(input.get(simulator).intValue());
+        long value = input.get(simulator).intValue();
+        streams.write(value);
+        if (simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(String.valueOf(value));
+        }
         return new TransformationSequence();
     }
 
     @Instruction
     public TransformationSequence printf(IAbstractInput input) throws SimulationException {
-        streams.write(input.get(simulator).floatValue());
+        double value = input.get(simulator).floatValue();
+        streams.write(value);
+        if (simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(String.valueOf(value));
+        }
         return new TransformationSequence();
     }
 
     @Instruction
     public TransformationSequence printc(IAbstractInput input) throws SimulationException {
-        streams.write((char) input.get(simulator).intValue());
+        char value = (char) input.get(simulator).intValue();
+        streams.write(value);
+        if (simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(String.valueOf(value));
+        }
         return new TransformationSequence();
     }
 
     @Instruction
     public TransformationSequence prints(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
         int address = (int) input1.get(simulator).intValue();
-        int index = 0;
         int maxSize = (int) input2.get(simulator).intValue();
-        long current = simulator.getMemory().read(address).intValue();
-
-        while (index < maxSize && current != 0) {
-            streams.write((char) current);
-            index++;
-            current = simulator.getMemory().read(address + index * Memory.getWordSize()).intValue();
-        }
-
-        return new TransformationSequence();
+        return prints(simulator.getMemory().readString(address, maxSize));
     }
 
     @Instruction
     public TransformationSequence prints(IAbstractInput input1) throws SimulationException {
         int address = (int) input1.get(simulator).intValue();
-        int index = 0;
-        long current = simulator.getMemory().read(address).intValue();
+        return prints(simulator.getMemory().readString(address));
+    }
 
-        while (current != 0) {
-            streams.write((char) current);
-            index++;
-            current = simulator.getMemory().read(address + index * Memory.getWordSize()).intValue();
+    /**
+     * Writes a string read from memory to the output stream.
+     *
+     * @param string the string to write.
+     * @return the empty transformation sequence.
+     * @throws SimulationException if there is an error writing to the output stream.
+     */
+    private TransformationSequence prints(String string) throws SimulationException {
+        streams.write(string);
+        if (simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(string);
         }
-
         return new TransformationSequence();
     }
 
@@ -124,6 +134,26 @@ public class TerminalInstructions {
         return read(() -> new RawData(streams.readChar()), output);
     }
 
+    /**
+     * Creates the transformations for reading a string into memory: the move of the stream's cursor and the write of
+     * the first characters of the string followed by a null terminator, recorded as a single range of memory.
+     *
+     * @param f       the transformable of the stream's cursor from before the string was read.
+     * @param address the address to write the string to.
+     * @param string  the string read.
+     * @param length  the number of characters of the string to write.
+     * @return the transformation sequence for the read.
+     * @throws SimulationException if the string cannot be written to the given address.
+     */
+    private TransformationSequence writeString(FileReadTransformable f, int address, String string, int length)
+            throws SimulationException {
+        Transformation t1 = f.transformation(new RawData(streams().getCursor()));
+        byte[] bytes = simulator.getMemory().encodeString(string, length);
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, address, bytes.length);
+        Transformation t2 = m.transformation(new RawData(bytes));
+        return new TransformationSequence(t1, t2);
+    }
+
     @Instruction
     public TransformationSequence reads(IAbstractInput input1, IAbstractInput input2)
             throws SimulationException, SimulationInterruptedException {
@@ -132,20 +162,12 @@ public class TerminalInstructions {
 
         FileReadTransformable f = new FileReadTransformable(simulator, streams().getCursor());
         String string = streams.readString();
-
-        int size = min(maxSize, string.length());
-        Transformation[] transformations = new Transformation[size + 1];
-        transformations[0] = f.transformation(new RawData(streams().getCursor()));
-
-        for (int i = 1; i < size; ++i) {
-            MemoryTransformable m = new MemoryTransformable(simulator, address);
-            transformations[i] = m.transformation(new RawData(string.charAt(i - 1)));
-            address = address + Memory.getWordSize();
+        if (maxSize <= 0) {
+            return new TransformationSequence(f.transformation(new RawData(streams().getCursor())));
         }
-        MemoryTransformable m = new MemoryTransformable(simulator, address);
-        transformations[transformations.length - 1] = m.transformation(new RawData('\0'));
 
-        return new TransformationSequence(transformations);
+        // The maximum size includes the null terminator
+        return writeString(f, address, string, min(maxSize - 1, string.length()));
     }
 
     @Instruction
@@ -156,19 +178,7 @@ public class TerminalInstructions {
         FileReadTransformable f = new FileReadTransformable(simulator, streams().getCursor());
         String string = streams.readString();
 
-        int size = string.length();
-        Transformation[] transformations = new Transformation[size + 2];
-        transformations[0] = f.transformation(new RawData(streams().getCursor()));
-
-        for (int i = 1; i < size + 1; ++i) {
-            MemoryTransformable m = new MemoryTransformable(simulator, address);
-            transformations[i] = m.transformation(new RawData(string.charAt(i - 1)));
-            address = address + Memory.getWordSize();
-        }
-        MemoryTransformable m = new MemoryTransformable(simulator, address);
-        transformations[transformations.length - 1] = m.transformation(new RawData('\0'));
-
-        return new TransformationSequence(transformations);
+        return writeString(f, address, string, string.length());
     }
 
     @Instruction
@@ -180,19 +190,7 @@ public class TerminalInstructions {
         FileReadTransformable f = new FileReadTransformable(simulator, streams().getCursor());
         String string = streams.readLine();
 
-        int size = min(maxSize, string.length());
-        Transformation[] transformations = new Transformation[size + 2];
-        transformations[0] = f.transformation(new RawData(streams().getCursor()));
-
-        for (int i = 1; i < size + 1; ++i) {
-            MemoryTransformable m = new MemoryTransformable(simulator, address);
-            transformations[i] = m.transformation(new RawData(string.charAt(i - 1)));
-            address = address + Memory.getWordSize();
-        }
-        MemoryTransformable m = new MemoryTransformable(simulator, address);
-        transformations[transformations.length - 1] = m.transformation(new RawData('\0'));
-
-        return new TransformationSequence(transformations);
+        return writeString(f, address, string, Math.max(0, min(maxSize, string.length())));
     }
 
     @Instruction
@@ -203,19 +201,59 @@ public class TerminalInstructions {
         FileReadTransformable f = new FileReadTransformable(simulator, streams().getCursor());
         String string = streams.readLine();
 
-        int size = string.length();
-        Transformation[] transformations = new Transformation[size + 2];
-        transformations[0] = f.transformation(new RawData(streams().getCursor()));
+        return writeString(f, address, string, string.length());
+    }
+
+    /**
+     * Reads the given number of raw bytes from the input stream directly into memory. The bytes are recorded as a
+     * single range of memory along with the move of the stream's cursor.
+     *
+     * @param input1 the address to write the bytes to.
+     * @param input2 the number of bytes to read.
+     * @return the transformation sequence for the read.
+     * @throws SimulationException            if the range cannot be written, the length is negative, or the stream ends
+     *                                        before all bytes are read.
+     * @throws SimulationInterruptedException if an interrupt occurs while waiting for input.
+     */
+    @Instruction
+    public TransformationSequence readb(IAbstractInput input1, IAbstractInput input2)
+            throws SimulationException, SimulationInterruptedException {
+        int address = (int) input1.get(simulator).intValue();
+        int length = MemoryInstructions.byteCount(simulator, input2);
+        // Check before consuming any input
+        simulator.getMemory().checkWritable(address, length);
 
-        for (int i = 1; i < size + 1; ++i) {
-            MemoryTransformable m = new MemoryTransformable(simulator, address);
-            transformations[i] = m.transformation(new RawData(string.charAt(i - 1)));
-            address = address + Memory.getWordSize();
+        FileReadTransformable f = new FileReadTransformable(simulator, streams().getCursor());
+        byte[] bytes = streams.readBytes(length);
+        Transformation t1 = f.transformation(new RawData(streams().getCursor()));
+        if (length == 0) {
+            return new TransformationSequence(t1);
         }
-        MemoryTransformable m = new MemoryTransformable(simulator, address);
-        transformations[transformations.length - 1] = m.transformation(new RawData('\0'));
+        MemoryRangeTransformable m = new MemoryRangeTransformable(simulator, address, length);
+        return new TransformationSequence(t1, m.transformation(new RawData(bytes)));
+    }
 
-        return new TransformationSequence(transformations);
+    /**
+     * Writes the given number of raw bytes from memory directly to the output stream.
+     *
+     * @param input1 the address of the bytes to write.
+     * @param input2 the number of bytes to write.
+     * @return the empty transformation sequence.
+     * @throws SimulationException if the range cannot be read or the length is negative.
+     */
+    @Instruction
+    public TransformationSequence writeb(IAbstractInput input1, IAbstractInput input2) throws SimulationException {
+        int address = (int) input1.get(simulator).intValue();
+        int length = MemoryInstructions.byteCount(simulator, input2);
+        if (length == 0) {
+            return new TransformationSequence();
+        }
+        byte[] bytes = simulator.getMemory().read(address, length).data();
+        streams.write(bytes);
+        if (simulator.getEvents().isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            simulator.getEvents().outputProduced(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+        return new TransformationSequence();
     }
 
 }
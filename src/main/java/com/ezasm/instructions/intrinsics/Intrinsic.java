@@ -0,0 +1,24 @@
+package com.ezasm.instructions.intrinsics;
+
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.TransformationSequence;
+
+/**
+ * A library routine implemented natively which runs when the program calls a routine of that name it does not define.
+ * An intrinsic takes its arguments from {@code $a0} through {@code $a2} and returns its result in {@code $r0}, as a
+ * routine called with {@code call} would.
+ */
+@FunctionalInterface
+public interface Intrinsic {
+
+    /**
+     * Computes the effect of the routine on the simulator without applying it.
+     *
+     * @param simulator the simulator to read the arguments and memory from.
+     * @return the transformations which store the result and any memory written by the routine.
+     * @throws SimulationException if the arguments are invalid or the routine reads or writes memory it may not.
+     */
+    TransformationSequence invoke(Simulator simulator) throws SimulationException;
+
+}
@@ -0,0 +1,135 @@
+package com.ezasm.instructions.intrinsics;
+
+import com.ezasm.instructions.targets.inputoutput.RegisterInputOutput;
+import com.ezasm.simulation.Memory;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.Transformation;
+import com.ezasm.simulation.transform.TransformationSequence;
+import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
+import com.ezasm.simulation.transform.transformable.MemoryRangeTransformable;
+import com.ezasm.util.RawData;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contains a mapping of library routine names to their native implementations. When intrinsics are enabled in the
+ * simulator, a {@code call} to a label with one of these names which the program does not define runs the native
+ * implementation, so that programs may use these routines without writing them. The result is the same as calling the
+ * routine and returning from it: only {@code $r0} and the memory the routine writes are changed, and {@code $ra},
+ * {@code $fid} and {@code $sp} are left as they were before the call.
+ * <p>
+ * Strings are read and written in the current string format of the memory. The built-in intrinsics are:
+ * <ul>
+ * <li>{@code strlen} - {@code $r0} is the length of the string at {@code $a0}.</li>
+ * <li>{@code memcmp} - {@code $r0} compares the {@code $a2} bytes at {@code $a0} and {@code $a1}: the difference
+ * between the first unequal bytes as unsigned values, or zero if all are equal.</li>
+ * <li>{@code atoi} - {@code $r0} is the decimal integer at the start of the string at {@code $a0}, after any leading
+ * whitespace and an optional sign, or zero if there is none.</li>
+ * <li>{@code itoa} - writes the decimal string of {@code $a0} to the buffer at {@code $a1} and {@code $r0} is its
+ * length.</li>
+ * </ul>
+ */
+public class Intrinsics {
+
+    /**
+     * The internal backing map for names and intrinsics.
+     */
+    private static final Map<String, Intrinsic> intrinsics = new HashMap<>();
+
+    static {
+        registerIntrinsic("strlen", Intrinsics::strlen);
+        registerIntrinsic("memcmp", Intrinsics::memcmp);
+        registerIntrinsic("atoi", Intrinsics::atoi);
+        registerIntrinsic("itoa", Intrinsics::itoa);
+    }
+
+    /**
+     * Registers an intrinsic under the given name, replacing any intrinsic already registered under it.
+     *
+     * @param name      the label name which the intrinsic runs in place of.
+     * @param intrinsic the native implementation.
+     */
+    public static void registerIntrinsic(String name, Intrinsic intrinsic) {
+        intrinsics.put(name, intrinsic);
+    }
+
+    /**
+     * Gets the intrinsic registered under the given name.
+     *
+     * @param name the label name.
+     * @return the intrinsic if it exists, null otherwise.
+     */
+    public static Intrinsic getIntrinsic(String name) {
+        return intrinsics.get(name);
+    }
+
+    /**
+     * Gets the names of the registered intrinsics as immutable.
+     *
+     * @return the names of the registered intrinsics.
+     */
+    public static Set<String> getIntrinsicNames() {
+        return Collections.unmodifiableSet(intrinsics.keySet());
+    }
+
+    private static long argument(Simulator simulator, String register) {
+        return simulator.getRegisters().getRegister(register).getLong();
+    }
+
+    private static Transformation result(Simulator simulator, long value) throws SimulationException {
+        InputOutputTransformable r0 = new InputOutputTransformable(simulator, new RegisterInputOutput(Registers.R0));
+        return r0.transformation(new RawData(value));
+    }
+
+    private static TransformationSequence strlen(Simulator simulator) throws SimulationException {
+        String string = simulator.getMemory().readString((int) argument(simulator, Registers.A0));
+        return new TransformationSequence(result(simulator, string.length()));
+    }
+
+    private static TransformationSequence memcmp(Simulator simulator) throws SimulationException {
+        long count = argument(simulator, Registers.A2);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new SimulationException(String.format("Invalid number of bytes to compare %d", count));
+        }
+        Memory memory = simulator.getMemory();
+        byte[] first = memory.read((int) argument(simulator, Registers.A0), (int) count).data();
+        byte[] second = memory.read((int) argument(simulator, Registers.A1), (int) count).data();
+        int mismatch = Arrays.mismatch(first, second);
+        long difference = mismatch < 0 ? 0 : Byte.toUnsignedInt(first[mismatch]) - Byte.toUnsignedInt(second[mismatch]);
+        return new TransformationSequence(result(simulator, difference));
+    }
+
+    private static TransformationSequence atoi(Simulator simulator) throws SimulationException {
+        String string = simulator.getMemory().readString((int) argument(simulator, Registers.A0));
+        int i = 0;
+        while (i < string.length() && Character.isWhitespace(string.charAt(i))) {
+            ++i;
+        }
+        boolean negative = false;
+        if (i < string.length() && (string.charAt(i) == '-' || string.charAt(i) == '+')) {
+            negative = string.charAt(i) == '-';
+            ++i;
+        }
+        long value = 0;
+        for (; i < string.length() && string.charAt(i) >= '0' && string.charAt(i) <= '9'; ++i) {
+            value = value * 10 + (string.charAt(i) - '0');
+        }
+        return new TransformationSequence(result(simulator, negative ? -value : value));
+    }
+
+    private static TransformationSequence itoa(Simulator simulator) throws SimulationException {
+        String string = Long.toString(argument(simulator, Registers.A0));
+        byte[] bytes = simulator.getMemory().encodeString(string, string.length());
+        int address = (int) argument(simulator, Registers.A1);
+        MemoryRangeTransformable buffer = new MemoryRangeTransformable(simulator, address, bytes.length);
+        return new TransformationSequence(buffer.transformation(new RawData(bytes)),
+                result(simulator, string.length()));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.ezasm.instructions.targets.input;
+
+import com.ezasm.instructions.host.DispatchHostFunction;
+
+/**
+ * The name of a host function given to the {@code native} instruction, bound to the overload of the host function
+ * resolved for the line when it was loaded. As an input it is the address of the name like any other string immediate.
+ */
+public class HostFunctionInput extends StringInput {
+
+    private final DispatchHostFunction function;
+
+    /**
+     * Constructs the name of a host function bound to its resolved overload.
+     *
+     * @param name     the name of the host function.
+     * @param function the resolved overload of the host function.
+     */
+    public HostFunctionInput(String name, DispatchHostFunction function) {
+        super(name);
+        this.function = function;
+    }
+
+    /**
+     * Gets the overload of the host function resolved for the line.
+     *
+     * @return the resolved host function.
+     */
+    public DispatchHostFunction getFunction() {
+        return function;
+    }
+}
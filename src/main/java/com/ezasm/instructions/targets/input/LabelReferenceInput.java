@@ -7,7 +7,8 @@ import com.ezasm.util.RawData;
 import java.util.Objects;
 
 /**
- * The implementation of a "label" reference to be used as a reference to the line following it.
+ * The implementation of a "label" reference to be used as a reference to the line following it or to the data of a data
+ * directive.
  */
 public class LabelReferenceInput implements IAbstractInput {
 
@@ -23,13 +24,26 @@ public class LabelReferenceInput implements IAbstractInput {
     }
 
     /**
-     * Gets the line number referred to by the label.
+     * Gets the name of the label.
+     *
+     * @return the name of the label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the line number referred to by the label, or the address of the data if the label names a data directive.
      *
      * @param simulator the program simulator.
      * @return the constant value.
      */
     @Override
     public RawData get(Simulator simulator) throws SimulationException {
+        Integer address = simulator.getDataLabelToAddress().get(label);
+        if (address != null) {
+            return new RawData(address);
+        }
         try {
             return new RawData(simulator.getLabelToFileIdAndLineNumber().get(label).getRight());
         } catch (NullPointerException e) {
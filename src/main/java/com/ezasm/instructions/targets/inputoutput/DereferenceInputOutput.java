@@ -46,6 +46,16 @@ public class DereferenceInputOutput implements IAbstractInputOutput {
         }
     }
 
+    /**
+     * Gets the address referred to: the value of the register plus the offset.
+     *
+     * @param simulator the program simulator.
+     * @return the address referred to.
+     */
+    public int address(Simulator simulator) {
+        return (int) register.get(simulator).intValue() + offset;
+    }
+
     /**
      * Gets the value stored within the address.
      *
@@ -68,6 +78,7 @@ public class DereferenceInputOutput implements IAbstractInputOutput {
     public void set(Simulator simulator, RawData value) throws SimulationException {
         int address = (int) register.get(simulator).intValue();
         simulator.getMemory().write(address + offset, value);
+        simulator.getEvents().memoryWritten(address + offset, value.data().length);
     }
 
     @Override
@@ -76,7 +76,8 @@ public class RegisterInputOutput implements IAbstractInputOutput {
             validateStackPointer(simulator, value);
         }
 
-        simulator.getRegisters().getRegister(register).setDataWithGuiCallback(value);
+        simulator.getRegisters().getRegister(register).setData(value);
+        simulator.getEvents().registerChanged(register);
     }
 
     @Override
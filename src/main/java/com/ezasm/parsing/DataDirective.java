@@ -0,0 +1,137 @@
+package com.ezasm.parsing;
+
+import com.ezasm.util.Conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The representation of a data directive, a line which reserves and initializes memory rather than running an
+ * instruction. The data of every directive in the main file is written into the heap in one copy when the file is
+ * loaded, in the order the directives appear, and the label of a directive refers to the address of its data.
+ *
+ * @param label the label naming the data, or null if the data is unnamed.
+ * @param data  the initial bytes of the data.
+ */
+public record DataDirective(String label, byte[] data) {
+
+    /**
+     * Determines if the given token names a data directive.
+     *
+     * @param token the token in question.
+     * @return true if the token starts with a '.', false otherwise.
+     */
+    public static boolean isDirective(String token) {
+        return token.length() > 1 && token.startsWith(".");
+    }
+
+    /**
+     * Parses a data directive and its values. The supported directives are:
+     * <ul>
+     * <li>{@code .word} - each value is an integer or character stored as a word.</li>
+     * <li>{@code .float} - each value is a number stored as a floating point word.</li>
+     * <li>{@code .bytes} - each value is an integer or character stored as a byte, or a string stored as one byte per
+     * character.</li>
+     * <li>{@code .space} - a single number of zeroed bytes to reserve.</li>
+     * </ul>
+     *
+     * @param label     the label naming the data, or null if the data is unnamed.
+     * @param directive the directive token.
+     * @param values    the value tokens following the directive.
+     * @return the parsed data directive.
+     * @throws ParseException if the directive is unknown or any of its values cannot be parsed.
+     */
+    public static DataDirective parse(String label, String directive, String[] values) throws ParseException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        switch (directive) {
+        case ".word" -> {
+            for (String value : values) {
+                data.writeBytes(Conversion.longToBytes(integerValue(value)));
+            }
+        }
+        case ".float" -> {
+            for (String value : values) {
+                NumericLiteral literal = NumericLiteral.parse(value.toLowerCase());
+                if (literal == null) {
+                    throw new ParseException(String.format("Unable to parse float value '%s'", value));
+                }
+                double d = literal.isInteger() ? literal.longValue() : literal.doubleValue();
+                data.writeBytes(Conversion.doubleToBytes(d));
+            }
+        }
+        case ".bytes" -> {
+            for (String value : values) {
+                if (Lexer.looksLikeStringImmediate(value)) {
+                    String string = Lexer.getStringImmediate(value);
+                    data.write(Conversion.stringToBytes(string, string.length()), 0, string.length());
+                } else {
+                    data.write((int) integerValue(value));
+                }
+            }
+        }
+        case ".space" -> {
+            if (values.length != 1) {
+                throw new ParseException("Directive .space takes exactly one size");
+            }
+            long size = integerValue(values[0]);
+            if (size < 0 || size > Integer.MAX_VALUE - 8) {
+                throw new ParseException(String.format("Invalid .space size %d", size));
+            }
+            return new DataDirective(label, new byte[(int) size]);
+        }
+        default -> throw new ParseException(String.format("Unknown directive '%s'", directive));
+        }
+        if (values.length == 0) {
+            throw new ParseException(String.format("Directive %s requires at least one value", directive));
+        }
+        return new DataDirective(label, data.toByteArray());
+    }
+
+    /**
+     * Parses an integer or character value of a directive.
+     *
+     * @param value the value token.
+     * @return the integer value.
+     * @throws ParseException if the value is not an integer or character.
+     */
+    private static long integerValue(String value) throws ParseException {
+        if (Lexer.looksLikeCharacterImmediate(value)) {
+            return Lexer.getCharacterImmediate(value);
+        }
+        NumericLiteral literal = NumericLiteral.parse(value.toLowerCase());
+        if (literal == null || !literal.isInteger()) {
+            throw new ParseException(String.format("Unable to parse integer value '%s'", value));
+        }
+        return literal.longValue();
+    }
+
+    /**
+     * Gets the number of bytes of the data.
+     *
+     * @return the number of bytes of the data.
+     */
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        DataDirective that = (DataDirective) o;
+        return Objects.equals(label, that.label) && Arrays.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(label) + Arrays.hashCode(data);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DataDirective[label=%s, size=%d]", label, data.length);
+    }
+}
@@ -9,12 +9,24 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Static context functions regarding lexing and tokenizing Strings.
  */
 public class Lexer {
 
+    /**
+     * The number of lines at which parsing multiple lines is split into chunks and lexed in parallel.
+     */
+    public static final int PARALLEL_PARSE_THRESHOLD = 20_000;
+
+    /**
+     * The number of lines lexed by each task when parsing in parallel.
+     */
+    private static final int PARALLEL_PARSE_CHUNK_SIZE = 4_096;
+
     /**
      * Determines if a character is alphanumeric.
      *
@@ -47,12 +59,7 @@ public class Lexer {
      * @return true if the given string is a valid number, false otherwise.
      */
     public static boolean isNumeric(String text) {
-        try {
-            textToBytes(text);
-            return true;
-        } catch (ParseException ignored) {
-        }
-        return false;
+        return NumericLiteral.parse(text) != null;
     }
 
     /**
@@ -63,6 +70,14 @@ public class Lexer {
      * @throws ParseException if there is an error converting the given string to a number.
      */
     public static RawData textToBytes(String text) throws ParseException {
+        NumericLiteral literal = NumericLiteral.parse(text);
+        if (literal != null) {
+            return literal.toRawData();
+        }
+
+        if (text.indexOf('.') != text.lastIndexOf('.')) {
+            throw new ParseException("More than one decimal point in number");
+        }
         int base = 10;
         if (looksHexadecimal(text)) {
             base = 16;
@@ -71,21 +86,6 @@ public class Lexer {
             base = 2;
             text = text.replace("0b", "");
         }
-
-        if (text.indexOf('.') != text.lastIndexOf('.')) {
-            throw new ParseException("More than one decimal point in number");
-        }
-
-        try { // Try conversion to long
-            return new RawData(Long.parseLong(text, base));
-        } catch (NumberFormatException ignored) {
-        }
-
-        try { // Try conversion to double
-            return new RawData(stringToDouble(text, base));
-        } catch (NumberFormatException ignored) {
-        }
-
         throw new ParseException(String.format("Unable to parse immediate %s in base %d", text, base));
     }
 
@@ -111,45 +111,6 @@ public class Lexer {
         return text.startsWith("0b") || text.startsWith("-0b");
     }
 
-    /**
-     * Converts the given string of the given base into a double.
-     *
-     * @param text the string representing the number to parse.
-     * @param base the base of the number contained in the string.
-     * @return the number within the string.
-     * @throws NumberFormatException if the given string is not a valid number.
-     */
-    private static double stringToDouble(String text, int base) throws NumberFormatException {
-        // TODO not this. Look at apache commons, maybe there's something better there? For now this works
-        boolean isNegative = false;
-        if (text.startsWith("-")) {
-            text = text.substring(1);
-            isNegative = true;
-        }
-        String[] halves = text.split("\\.");
-        if (halves.length > 2) {
-            throw new NumberFormatException();
-        }
-        double alloc = 0.0;
-        for (int i = 0; i < halves[0].length(); ++i) {
-            int exp = halves[0].length() - 1 - i;
-            alloc += Integer.parseInt(Character.toString(halves[0].charAt(i)), base) * Math.pow(base, exp);
-        }
-        if (halves.length == 1) {
-            if (isNegative) {
-                alloc = -alloc;
-            }
-            return alloc;
-        }
-        for (int i = 0; i < halves[1].length(); ++i) {
-            alloc += Integer.parseInt(Character.toString(halves[1].charAt(i)), base) * Math.pow(base, -(i + 1));
-        }
-        if (isNegative) {
-            alloc = -alloc;
-        }
-        return alloc;
-    }
-
     /**
      * Determines if a token is a label or not.
      *
@@ -315,9 +276,84 @@ public class Lexer {
      */
     public static List<Line> parseLines(String lines) throws ParseException {
         String[] linesRead = lines.split("\n\r?");
-        List<Line> linesLexed = new ArrayList<>();
+        if (linesRead.length >= PARALLEL_PARSE_THRESHOLD) {
+            return parseLinesInParallel(linesRead, ForkJoinPool.commonPool());
+        }
+        return parseLineRange(linesRead, 0, linesRead.length);
+    }
+
+    /**
+     * Parses a String containing multiple lines by lexing chunks of lines in parallel on the given pool. The lines
+     * returned and any exception thrown are identical to those of {@link Lexer#parseLines(String)}.
+     *
+     * @param lines the text containing the lines to parse.
+     * @param pool  the pool on which to lex the chunks of lines.
+     * @return the list of valid lines of code found.
+     * @throws ParseException if any line could not be properly parsed.
+     */
+    public static List<Line> parseLinesInParallel(String lines, ForkJoinPool pool) throws ParseException {
+        return parseLinesInParallel(lines.split("\n\r?"), pool);
+    }
+
+    /**
+     * Lexes the given lines in chunks on the given pool and merges the results in order. The exception reported is the
+     * one from the earliest failing line, as it would be when parsing sequentially.
+     *
+     * @param linesRead the individual lines of text.
+     * @param pool      the pool on which to lex the chunks of lines.
+     * @return the list of valid lines of code found.
+     * @throws ParseException if any line could not be properly parsed.
+     */
+    private static List<Line> parseLinesInParallel(String[] linesRead, ForkJoinPool pool) throws ParseException {
+        List<ForkJoinTask<ParsedChunk>> chunks = new ArrayList<>();
+        for (int start = 0; start < linesRead.length; start += PARALLEL_PARSE_CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(start + PARALLEL_PARSE_CHUNK_SIZE, linesRead.length);
+            chunks.add(pool.submit(() -> {
+                try {
+                    return new ParsedChunk(parseLineRange(linesRead, from, to), null);
+                } catch (ParseException e) {
+                    return new ParsedChunk(null, e);
+                }
+            }));
+        }
 
-        for (int i = 0; i < linesRead.length; ++i) {
+        List<Line> linesLexed = new ArrayList<>(linesRead.length);
+        try {
+            for (ForkJoinTask<ParsedChunk> chunk : chunks) {
+                ParsedChunk parsed = chunk.join();
+                if (parsed.exception() != null) {
+                    throw parsed.exception();
+                }
+                linesLexed.addAll(parsed.lines());
+            }
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(false));
+        }
+        return linesLexed;
+    }
+
+    /**
+     * The outcome of lexing one chunk of lines: either the lines found or the first exception encountered.
+     *
+     * @param lines     the valid lines of code found, or null if an exception occurred.
+     * @param exception the first exception encountered, or null if the chunk was parsed successfully.
+     */
+    private record ParsedChunk(List<Line> lines, ParseException exception) {
+    }
+
+    /**
+     * Parses the lines within the given range of line numbers.
+     *
+     * @param linesRead the individual lines of text.
+     * @param from      the first line number to parse, inclusive.
+     * @param to        the last line number to parse, exclusive.
+     * @return the list of valid lines of code found.
+     * @throws ParseException if any line could not be properly parsed.
+     */
+    private static List<Line> parseLineRange(String[] linesRead, int from, int to) throws ParseException {
+        List<Line> linesLexed = new ArrayList<>();
+        for (int i = from; i < to; ++i) {
             Line lexed = parseLine(linesRead[i], i);
             if (lexed != null) {
                 linesLexed.add(lexed);
@@ -16,7 +16,8 @@ import java.util.List;
 import java.util.Objects;
 
 /**
- * The representation of a line of code. Consists of an Instruction object and the arguments thereof.
+ * The representation of a line of code. Consists of an Instruction object and the arguments thereof, a label, or a data
+ * directive.
  */
 public class Line {
 
@@ -24,6 +25,7 @@ public class Line {
     private final IAbstractTarget[] arguments;
     private final String label;
     private final List<String> stringImmediates;
+    private final DataDirective data;
 
     /**
      * Creates and validates a line based on the given tokens.
@@ -33,6 +35,21 @@ public class Line {
      * @throws ParseException if any of the given String tokens cannot be parsed into their corresponding types.
      */
     public Line(String instruction, String[] arguments) throws ParseException {
+        if (DataDirective.isDirective(instruction) || (Lexer.isLabel(instruction) && arguments != null
+                && arguments.length > 0 && DataDirective.isDirective(arguments[0]))) {
+            this.label = null;
+            this.instruction = null;
+            this.arguments = null;
+            this.stringImmediates = null;
+            if (DataDirective.isDirective(instruction)) {
+                this.data = DataDirective.parse(null, instruction, arguments);
+            } else {
+                this.data = DataDirective.parse(instruction.substring(0, instruction.length() - 1), arguments[0],
+                        Arrays.copyOfRange(arguments, 1, arguments.length));
+            }
+            return;
+        }
+        this.data = null;
         if (Lexer.isLabel(instruction)) {
             this.label = instruction.substring(0, instruction.length() - 1);
             this.instruction = null;
@@ -46,26 +63,27 @@ public class Line {
             throw new ParseException("Error parsing instruction '" + instruction + "'");
         }
 
-        this.arguments = new IAbstractTarget[arguments.length];
+        IAbstractTarget[] parsed = new IAbstractTarget[arguments.length];
         this.stringImmediates = new ArrayList<>();
         this.label = null;
 
         // Determine the type of each argument and create the token respectively
         for (int i = 0; i < arguments.length; ++i) {
-            if (Lexer.looksLikeImmediate(arguments[i].toLowerCase())) {
-                this.arguments[i] = new ImmediateInput(Lexer.textToBytes(arguments[i].toLowerCase()));
+            NumericLiteral literal = NumericLiteral.parse(arguments[i].toLowerCase());
+            if (literal != null) {
+                parsed[i] = new ImmediateInput(literal.toRawData());
             } else if (Lexer.looksLikeCharacterImmediate(arguments[i])) {
-                this.arguments[i] = new ImmediateInput(new RawData(Lexer.getCharacterImmediate(arguments[i])));
+                parsed[i] = new ImmediateInput(new RawData(Lexer.getCharacterImmediate(arguments[i])));
             } else if (Lexer.looksLikeStringImmediate(arguments[i])) {
                 String input = Lexer.getStringImmediate(arguments[i]);
-                this.arguments[i] = new StringInput(input);
+                parsed[i] = new StringInput(input);
                 this.stringImmediates.add(input);
             } else if (Lexer.isRegister(arguments[i])) {
-                this.arguments[i] = new RegisterInputOutput(arguments[i]);
+                parsed[i] = new RegisterInputOutput(arguments[i]);
             } else if (Lexer.looksLikeDereference(arguments[i])) {
-                this.arguments[i] = new DereferenceInputOutput(arguments[i]);
+                parsed[i] = new DereferenceInputOutput(arguments[i]);
             } else if (Lexer.looksLikeLabelReference(arguments[i])) {
-                this.arguments[i] = new LabelReferenceInput(arguments[i]);
+                parsed[i] = new LabelReferenceInput(arguments[i]);
             } else {
                 // The argument did not match any of the given types
                 throw new ParseException("Error parsing token '" + arguments[i] + "'");
@@ -76,6 +94,8 @@ public class Line {
             throw new ParseException(String.format("Invalid instruction: %s", instruction));
         }
 
+        this.arguments = InstructionDispatcher.bindArguments(instruction, parsed);
+
         DispatchInstruction dispatchInstruction = InstructionDispatcher.getInstruction(instruction, getArgumentTypes());
 
         if (dispatchInstruction == null) {
@@ -137,6 +157,24 @@ public class Line {
         return label;
     }
 
+    /**
+     * Check if the line is a data directive.
+     *
+     * @return true if the line is a data directive, false otherwise.
+     */
+    public boolean isData() {
+        return data != null;
+    }
+
+    /**
+     * Gets the data directive of that line.
+     *
+     * @return the data directive of that line, or null if the line is not a data directive.
+     */
+    public DataDirective getData() {
+        return data;
+    }
+
     /**
      * Gets the list of string immediates inside this line.
      *
@@ -159,12 +197,12 @@ public class Line {
             return false;
         Line line = (Line) o;
         return Objects.equals(instruction, line.instruction) && Arrays.equals(arguments, line.arguments)
-                && Objects.equals(label, line.label);
+                && Objects.equals(label, line.label) && Objects.equals(data, line.data);
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(instruction, label);
+        int result = Objects.hash(instruction, label, data);
         result = 31 * result + Arrays.hashCode(arguments);
         return result;
     }
@@ -0,0 +1,159 @@
+package com.ezasm.parsing;
+
+import com.ezasm.instructions.targets.input.StringInput;
+import com.ezasm.util.FileIO;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A cache of the parsed lines of source code files which are imported by a program. Entries are keyed by the absolute
+ * path of the file and are only reused while both the modification time and the hash of the file contents are
+ * unchanged. This allows the parsed lines of imported files to survive between runs of a program.
+ */
+public class ModuleCache {
+
+    /**
+     * The name of the instruction which imports another file.
+     */
+    private static final String IMPORT_INSTRUCTION = "import";
+
+    /**
+     * The threads which prefetch imported files. Reading files blocks, so this is kept apart from the common pool, and
+     * the threads are daemons so that a prefetch never keeps the program from exiting.
+     */
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors
+            .newFixedThreadPool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "module-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * A parsed file along with the information needed to determine if it is still up-to-date.
+     *
+     * @param lastModified the modification time of the file when it was parsed.
+     * @param length       the length of the file in bytes when it was parsed.
+     * @param contentHash  the hash of the file contents when it was parsed.
+     * @param lines        the lines parsed from the file.
+     */
+    private record Module(long lastModified, long length, byte[] contentHash, List<Line> lines) {
+    }
+
+    private final Map<String, Module> modules;
+
+    /**
+     * Constructs an empty module cache.
+     */
+    public ModuleCache() {
+        this.modules = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the parsed lines of the given file, parsing it only if it is not cached or has changed since it was cached.
+     * A file whose modification time and length are unchanged is not read again. Otherwise, the file is read and its
+     * contents hashed so that a file which was only touched does not need to be parsed again.
+     *
+     * @param file the file to get the lines of.
+     * @return the lines parsed from the file.
+     * @throws IOException    if there is an error reading the file.
+     * @throws ParseException if there is an error parsing the file.
+     */
+    public List<Line> getLines(File file) throws IOException, ParseException {
+        String path = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        Module cached = modules.get(path);
+        if (cached != null && cached.lastModified() == lastModified && cached.length() == length) {
+            return cached.lines();
+        }
+
+        String content = FileIO.readFile(file);
+        byte[] contentHash = hash(content);
+        if (cached != null && MessageDigest.isEqual(cached.contentHash(), contentHash)) {
+            modules.put(path, new Module(lastModified, length, contentHash, cached.lines()));
+            return cached.lines();
+        }
+
+        List<Line> lines = List.copyOf(Lexer.parseLines(content));
+        modules.put(path, new Module(lastModified, length, contentHash, lines));
+        return lines;
+    }
+
+    /**
+     * Parses the files imported by the given lines and by the files they import, in parallel and in the background, so
+     * that they are already cached when the imports are executed. Each file is visited at most once per call, even if
+     * files import each other. Errors are ignored here and are reported when the import itself is executed.
+     *
+     * @param lines     the lines which may contain imports.
+     * @param directory the directory which import paths are relative to.
+     */
+    public void prefetchImports(List<Line> lines, String directory) {
+        prefetchImports(lines, directory, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Parses the files imported by the given lines which have not been visited yet in the background.
+     *
+     * @param lines     the lines which may contain imports.
+     * @param directory the directory which import paths are relative to.
+     * @param visited   the absolute paths of the files already visited by this prefetch.
+     */
+    private void prefetchImports(List<Line> lines, String directory, Set<String> visited) {
+        for (String importPath : findImports(lines)) {
+            File file = new File(directory + File.separator + importPath);
+            if (!visited.add(file.getAbsolutePath())) {
+                continue;
+            }
+            PREFETCH_EXECUTOR.execute(() -> {
+                try {
+                    prefetchImports(getLines(file), directory, visited);
+                } catch (IOException | ParseException ignored) {
+                }
+            });
+        }
+    }
+
+    /**
+     * Finds the relative paths of all files imported by the given lines.
+     *
+     * @param lines the lines to search.
+     * @return the relative paths of the imported files.
+     */
+    private static Set<String> findImports(List<Line> lines) {
+        Set<String> imports = new LinkedHashSet<>();
+        for (Line line : lines) {
+            if (!line.isLabel() && !line.isData() && line.getInstruction().text().equals(IMPORT_INSTRUCTION)
+                    && line.getArguments().length == 1 && line.getArguments()[0] instanceof StringInput input) {
+                imports.add(input.getString());
+            }
+        }
+        return imports;
+    }
+
+    /**
+     * Hashes the given file contents.
+     *
+     * @param content the file contents.
+     * @return the hash of the contents.
+     */
+    private static byte[] hash(String content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) { // every Java platform is required to support SHA-256
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.ezasm.parsing;
+
+import com.ezasm.util.RawData;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A numeric literal scanned from source text. Decimal, hexadecimal (<code>0x</code>) and binary (<code>0b</code>)
+ * integers and fractional numbers are recognized in a single pass without using exceptions for control flow. Integers
+ * which do not fit into a long are treated as floating point numbers.
+ *
+ * @param isInteger   true if the literal is an integer, false if it is a floating point number.
+ * @param longValue   the integer value of the literal; only meaningful if the literal is an integer.
+ * @param doubleValue the floating point value of the literal; only meaningful if the literal is not an integer.
+ */
+public record NumericLiteral(boolean isInteger, long longValue, double doubleValue) {
+
+    /**
+     * Powers of ten which are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * The largest integer below which every integer is exactly representable as a double.
+     */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /**
+     * Scans the given text as a numeric literal.
+     *
+     * @param text the text to scan.
+     * @return the literal represented by the text, or null if the text is not a valid numeric literal.
+     */
+    public static NumericLiteral parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            ++i;
+        }
+
+        int base = 10;
+        if (i + 1 < length && text.charAt(i) == '0' && text.charAt(i + 1) == 'x') {
+            base = 16;
+            i += 2;
+        } else if (i + 1 < length && text.charAt(i) == '0' && text.charAt(i + 1) == 'b') {
+            base = 2;
+            i += 2;
+        }
+
+        // The digits are accumulated negatively in the same manner as Long.parseLong to allow for Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / base;
+        long accumulator = 0;
+        BigInteger overflow = null;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+
+        for (; i < length; ++i) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (seenPoint) {
+                    return null;
+                }
+                seenPoint = true;
+                continue;
+            }
+            int digit = Character.digit(c, base);
+            if (digit < 0) {
+                return null;
+            }
+            ++digits;
+            if (seenPoint) {
+                ++fractionDigits;
+            }
+            if (overflow != null) {
+                overflow = overflow.multiply(BigInteger.valueOf(base)).subtract(BigInteger.valueOf(digit));
+            } else if (accumulator < multiplyLimit || accumulator * base < limit + digit) {
+                overflow = BigInteger.valueOf(accumulator).multiply(BigInteger.valueOf(base))
+                        .subtract(BigInteger.valueOf(digit));
+            } else {
+                accumulator = accumulator * base - digit;
+            }
+        }
+
+        if (digits == 0) {
+            return null;
+        }
+
+        if (!seenPoint && overflow == null) {
+            return new NumericLiteral(true, negative ? accumulator : -accumulator, 0.0);
+        }
+
+        double value;
+        if (overflow == null && accumulator > -MAX_EXACT_DOUBLE_INTEGER) {
+            value = smallMantissaToDouble(-accumulator, base, fractionDigits);
+        } else {
+            BigInteger mantissa = overflow == null ? BigInteger.valueOf(accumulator).negate() : overflow.negate();
+            value = largeMantissaToDouble(mantissa, base, fractionDigits);
+        }
+        return new NumericLiteral(false, 0, negative ? -value : value);
+    }
+
+    /**
+     * Converts a mantissa which is exactly representable as a double and a count of fractional digits to the closest
+     * double.
+     *
+     * @param mantissa       the non-negative digits of the number as an integer.
+     * @param base           the base of the digits.
+     * @param fractionDigits the number of the digits which are after the radix point.
+     * @return the closest double to the number represented.
+     */
+    private static double smallMantissaToDouble(long mantissa, int base, int fractionDigits) {
+        if (base == 10) {
+            if (fractionDigits < POWERS_OF_TEN.length) {
+                // Both operands are exact, so the division is correctly rounded
+                return mantissa / POWERS_OF_TEN[fractionDigits];
+            }
+            return new BigDecimal(BigInteger.valueOf(mantissa), fractionDigits).doubleValue();
+        }
+        return Math.scalb((double) mantissa, -fractionDigits * Integer.numberOfTrailingZeros(base));
+    }
+
+    /**
+     * Converts an arbitrarily large mantissa and a count of fractional digits to the closest double.
+     *
+     * @param mantissa       the non-negative digits of the number as an integer.
+     * @param base           the base of the digits.
+     * @param fractionDigits the number of the digits which are after the radix point.
+     * @return the closest double to the number represented.
+     */
+    private static double largeMantissaToDouble(BigInteger mantissa, int base, int fractionDigits) {
+        if (base == 10) {
+            return new BigDecimal(mantissa, fractionDigits).doubleValue();
+        }
+        // BigInteger conversion is correctly rounded and scaling by a power of two is exact
+        return Math.scalb(mantissa.doubleValue(), -fractionDigits * Integer.numberOfTrailingZeros(base));
+    }
+
+    /**
+     * Converts this literal to the raw data representing it.
+     *
+     * @return the raw data representing this literal.
+     */
+    public RawData toRawData() {
+        return isInteger ? new RawData(longValue) : new RawData(doubleValue);
+    }
+
+}
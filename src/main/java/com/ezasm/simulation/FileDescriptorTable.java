@@ -0,0 +1,398 @@
+package com.ezasm.simulation;
+
+import com.ezasm.instructions.implementation.StreamManager;
+import com.ezasm.instructions.implementation.TerminalInstructions;
+import com.ezasm.simulation.exception.InvalidFileDescriptorException;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.util.ChannelInputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The files opened by a program, indexed by file descriptor. Descriptors 0 and 1 always refer to the standard input and
+ * output streams and 2 is reserved for standard error; files opened by the program take the lowest free descriptor from
+ * 3 upward, so that undoing and redoing an open gives the same descriptor. Each file is read or written through a
+ * buffered file channel. A closed file remembers its path, mode, and position so that closing it can be undone.
+ */
+public class FileDescriptorTable {
+
+    /**
+     * The file descriptor of the standard input stream.
+     */
+    public static final int STANDARD_INPUT = 0;
+
+    /**
+     * The file descriptor of the standard output stream.
+     */
+    public static final int STANDARD_OUTPUT = 1;
+
+    private static final int FIRST_FILE_DESCRIPTOR = 3;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A file opened by the program. Opaque outside of the table; undo keeps hold of the file an open replaced so that
+     * it can be put back in its descriptor.
+     */
+    public static final class Descriptor {
+
+        private final Path path;
+        private final String mode;
+        private FileChannel channel;
+        private StreamManager streams;
+        private boolean open;
+        private long closedPosition;
+
+        private Descriptor(Path path, String mode) {
+            this.path = path;
+            this.mode = mode;
+            this.open = false;
+            this.closedPosition = 0;
+        }
+
+        private boolean isReadable() {
+            return mode.equals("r");
+        }
+    }
+
+    private final List<Descriptor> descriptors;
+
+    /**
+     * Constructs a table with no files open.
+     */
+    public FileDescriptorTable() {
+        this.descriptors = new ArrayList<>();
+    }
+
+    /**
+     * Opens the file with the given name, which is resolved against the given directory and may not be outside of it.
+     *
+     * @param name      the name of the file.
+     * @param mode      "r" to read, "w" to write from the start, replacing the contents, or "a" to append.
+     * @param directory the directory the program runs in.
+     * @return the file descriptor of the opened file.
+     * @throws SimulationException if the mode is unknown, the file is outside of the directory, or it cannot be opened.
+     */
+    public int open(String name, String mode, Path directory) throws SimulationException {
+        Path path = resolve(name, directory);
+        Descriptor descriptor = new Descriptor(path, mode);
+        openChannel(descriptor, true);
+
+        int fd = nextDescriptor();
+        restore(fd, descriptor);
+        return fd;
+    }
+
+    /**
+     * Gets the file descriptor the next opened file will take: the lowest one which is not open.
+     *
+     * @return the next file descriptor.
+     */
+    public int nextDescriptor() {
+        for (int i = 0; i < descriptors.size(); ++i) {
+            if (descriptors.get(i) == null || !descriptors.get(i).open) {
+                return i + FIRST_FILE_DESCRIPTOR;
+            }
+        }
+        return descriptors.size() + FIRST_FILE_DESCRIPTOR;
+    }
+
+    /**
+     * Puts the given file in the given descriptor, closing the file currently open there if it is a different one. Used
+     * to undo and redo an open which replaced a closed file.
+     *
+     * @param fd         the file descriptor.
+     * @param descriptor the file to put in the descriptor, or null to free it.
+     * @throws SimulationException if the file descriptor is a standard stream or the current file cannot be closed.
+     */
+    public void restore(long fd, Descriptor descriptor) throws SimulationException {
+        long index = fd - FIRST_FILE_DESCRIPTOR;
+        if (index < 0 || index > descriptors.size()) {
+            throw new InvalidFileDescriptorException(fd);
+        }
+        Descriptor current = find(fd);
+        if (current != null && current != descriptor && current.open) {
+            close(fd);
+        }
+        if (index == descriptors.size()) {
+            descriptors.add(descriptor);
+        } else {
+            descriptors.set((int) index, descriptor);
+        }
+    }
+
+    /**
+     * Resolves the name of a file against the given directory, ensuring that it does not leave the directory even
+     * through symbolic links.
+     *
+     * @param name      the name of the file.
+     * @param directory the directory the program runs in.
+     * @return the path of the file.
+     * @throws SimulationException if the file is outside of the directory.
+     */
+    private static Path resolve(String name, Path directory) throws SimulationException {
+        Path root = directory.toAbsolutePath().normalize();
+        Path path = root.resolve(name).normalize();
+        try {
+            Path realRoot = root.toRealPath();
+            Path real = Files.exists(path) ? path.toRealPath()
+                    : path.getParent().toRealPath().resolve(path.getFileName());
+            if (path.startsWith(root) && real.startsWith(realRoot)) {
+                return path;
+            }
+        } catch (IOException | NullPointerException ignored) {
+        }
+        throw new SimulationException(String.format("Unable to open '%s': files must be within '%s'", name, root));
+    }
+
+    /**
+     * Opens the channel of the given file and the streams over it.
+     *
+     * @param descriptor the file.
+     * @param first      true if the file is being opened by the program, false if it is being reopened by an undo.
+     * @throws SimulationException if the mode is unknown or the file cannot be opened.
+     */
+    private static void openChannel(Descriptor descriptor, boolean first) throws SimulationException {
+        OpenOption[] options = switch (descriptor.mode) {
+        case "r" -> new OpenOption[] { StandardOpenOption.READ };
+        case "w" -> first
+                ? new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING }
+                : new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.CREATE };
+        case "a" -> new OpenOption[] { StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND };
+        default -> throw new SimulationException(String.format("Unknown file mode '%s'", descriptor.mode));
+        };
+        try {
+            FileChannel channel = FileChannel.open(descriptor.path, options);
+            if (descriptor.isReadable()) {
+                descriptor.streams = new StreamManager(new ChannelInputStream(channel),
+                        OutputStream.nullOutputStream());
+                descriptor.streams.moveCursor(descriptor.closedPosition);
+            } else {
+                channel.position(descriptor.closedPosition);
+                descriptor.streams = new StreamManager(InputStream.nullInputStream(), OutputStream.nullOutputStream());
+                descriptor.streams.setOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER_SIZE), false);
+            }
+            descriptor.channel = channel;
+            descriptor.open = true;
+        } catch (IOException e) {
+            throw new SimulationException(
+                    String.format("Unable to open '%s': %s", descriptor.path.getFileName(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the open file with the given descriptor.
+     *
+     * @param fd the file descriptor.
+     * @return the open file.
+     * @throws InvalidFileDescriptorException if the descriptor does not refer to a file opened by the program.
+     */
+    private Descriptor descriptor(long fd) throws InvalidFileDescriptorException {
+        Descriptor descriptor = find(fd);
+        if (descriptor == null || !descriptor.open) {
+            throw new InvalidFileDescriptorException(fd);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Gets the file with the given descriptor whether it is open or not.
+     *
+     * @param fd the file descriptor.
+     * @return the file, or null if no file was ever opened with the descriptor.
+     */
+    public Descriptor find(long fd) {
+        long index = fd - FIRST_FILE_DESCRIPTOR;
+        if (index < 0 || index >= descriptors.size()) {
+            return null;
+        }
+        return descriptors.get((int) index);
+    }
+
+    /**
+     * Determines if the given file descriptor refers to an open file or a standard stream.
+     *
+     * @param fd the file descriptor.
+     * @return true if the file descriptor can be used, false otherwise.
+     */
+    public boolean isOpen(long fd) {
+        if (fd == STANDARD_INPUT || fd == STANDARD_OUTPUT) {
+            return true;
+        }
+        Descriptor descriptor = find(fd);
+        return descriptor != null && descriptor.open;
+    }
+
+    /**
+     * Gets the streams to read from the given file descriptor.
+     *
+     * @param fd the file descriptor.
+     * @return the streams of the file.
+     * @throws SimulationException if the descriptor is not open or not open for reading.
+     */
+    public StreamManager input(long fd) throws SimulationException {
+        if (fd == STANDARD_INPUT) {
+            return TerminalInstructions.streams();
+        }
+        Descriptor descriptor = fd == STANDARD_OUTPUT ? null : descriptor(fd);
+        if (descriptor == null || !descriptor.isReadable()) {
+            throw new SimulationException(String.format("File descriptor %d is not open for reading", fd));
+        }
+        return descriptor.streams;
+    }
+
+    /**
+     * Gets the streams to write to the given file descriptor.
+     *
+     * @param fd the file descriptor.
+     * @return the streams of the file.
+     * @throws SimulationException if the descriptor is not open or not open for writing.
+     */
+    public StreamManager output(long fd) throws SimulationException {
+        if (fd == STANDARD_OUTPUT) {
+            return TerminalInstructions.streams();
+        }
+        Descriptor descriptor = fd == STANDARD_INPUT ? null : descriptor(fd);
+        if (descriptor == null || descriptor.isReadable()) {
+            throw new SimulationException(String.format("File descriptor %d is not open for writing", fd));
+        }
+        return descriptor.streams;
+    }
+
+    /**
+     * Gets the position in the given file descriptor at which the next byte will be read or written.
+     *
+     * @param fd the file descriptor.
+     * @return the position in the file.
+     * @throws SimulationException if the descriptor is not open or an error occurs reading the position.
+     */
+    public long position(long fd) throws SimulationException {
+        if (fd == STANDARD_INPUT) {
+            return TerminalInstructions.streams().getCursor();
+        }
+        Descriptor descriptor = fd == STANDARD_OUTPUT ? null : descriptor(fd);
+        if (descriptor == null) {
+            throw new SimulationException("Standard output does not have a position");
+        }
+        if (descriptor.isReadable()) {
+            return descriptor.streams.getCursor();
+        }
+        try {
+            descriptor.streams.flushOutput();
+            return descriptor.channel.position();
+        } catch (IOException e) {
+            throw new SimulationException("Unable to get the position in the file");
+        }
+    }
+
+    /**
+     * Moves the position in the given file descriptor at which the next byte will be read or written.
+     *
+     * @param fd       the file descriptor.
+     * @param position the new position.
+     * @throws SimulationException if the descriptor is not open or cannot seek to the position.
+     */
+    public void seek(long fd, long position) throws SimulationException {
+        if (position < 0) {
+            throw new SimulationException(String.format("Cannot seek to position %d", position));
+        }
+        if (fd == STANDARD_INPUT) {
+            TerminalInstructions.streams().moveCursor(position);
+            return;
+        }
+        Descriptor descriptor = fd == STANDARD_OUTPUT ? null : descriptor(fd);
+        if (descriptor == null) {
+            throw new SimulationException("Cannot seek in standard output");
+        }
+        if (descriptor.isReadable()) {
+            descriptor.streams.moveCursor(position);
+            return;
+        }
+        try {
+            descriptor.streams.flushOutput();
+            descriptor.channel.position(position);
+        } catch (IOException e) {
+            throw new SimulationException("Unable to seek to new location");
+        }
+    }
+
+    /**
+     * Closes the given file descriptor, writing anything buffered to the file first.
+     *
+     * @param fd the file descriptor.
+     * @throws SimulationException if the descriptor does not refer to a file opened by the program.
+     */
+    public void close(long fd) throws SimulationException {
+        Descriptor descriptor = descriptor(fd);
+        descriptor.closedPosition = position(fd);
+        closeChannel(descriptor);
+    }
+
+    /**
+     * Reopens the given file descriptor at the position it was closed at, undoing the close.
+     *
+     * @param fd the file descriptor.
+     * @throws SimulationException if the descriptor was never opened or the file cannot be opened again.
+     */
+    public void reopen(long fd) throws SimulationException {
+        Descriptor descriptor = find(fd);
+        if (descriptor == null) {
+            throw new InvalidFileDescriptorException(fd);
+        }
+        if (!descriptor.open) {
+            openChannel(descriptor, false);
+        }
+    }
+
+    /**
+     * Writes anything buffered for any open file to the file.
+     */
+    public void flushAll() {
+        for (Descriptor descriptor : descriptors) {
+            if (descriptor != null && descriptor.open) {
+                descriptor.streams.flushOutput();
+            }
+        }
+    }
+
+    /**
+     * Closes every open file and forgets all file descriptors.
+     */
+    public void closeAll() {
+        for (Descriptor descriptor : descriptors) {
+            if (descriptor != null && descriptor.open) {
+                closeChannel(descriptor);
+            }
+        }
+        descriptors.clear();
+    }
+
+    /**
+     * Writes anything buffered for the given file and closes its channel.
+     *
+     * @param descriptor the file.
+     */
+    private static void closeChannel(Descriptor descriptor) {
+        descriptor.streams.flushOutput();
+        try {
+            descriptor.channel.close();
+        } catch (IOException ignored) { // the file is closed either way
+        }
+        descriptor.open = false;
+        descriptor.channel = null;
+        descriptor.streams = null;
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.ezasm.simulation;
+
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationOutOfMemoryException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * An allocator for the heap of the simulated memory. Free blocks are kept in segregated lists by size class, where
+ * class {@code c} holds blocks of at least {@code 2^c} and less than {@code 2^(c+1)} bytes, and an allocation takes the
+ * lowest addressed block of its own class which fits or else the lowest addressed block of the next nonempty larger
+ * class, splitting off the rest. When no free block fits, the heap grows from the heap pointer toward the stack.
+ * <p>
+ * Freed blocks are merged with free neighbors, and a free block which reaches the heap pointer is returned to it, so
+ * the free space is always fully determined by the allocated blocks and the heap pointer. That makes allocating and
+ * freeing exact inverses of each other for undo. All bookkeeping is kept here rather than in the simulated memory, so a
+ * program writing outside of its blocks cannot corrupt the allocator.
+ */
+public class HeapAllocator {
+
+    private static final int SIZE_CLASSES = Integer.SIZE;
+
+    private final Memory memory;
+    private final Register stackPointer;
+
+    private final Map<Integer, Integer> allocated;
+    private final TreeMap<Integer, Integer> freeByAddress;
+    private final NavigableSet<Integer>[] freeBySize;
+
+    private long liveBytes;
+    private long peakLiveBytes;
+    private long freeBytes;
+
+    /**
+     * Constructs an allocator for the heap of the given memory which may grow up to the given stack pointer.
+     *
+     * @param memory       the memory containing the heap.
+     * @param stackPointer the stack pointer register, which the heap may not grow past.
+     */
+    @SuppressWarnings("unchecked")
+    public HeapAllocator(Memory memory, Register stackPointer) {
+        this.memory = memory;
+        this.stackPointer = stackPointer;
+        this.allocated = new HashMap<>();
+        this.freeByAddress = new TreeMap<>();
+        this.freeBySize = new NavigableSet[SIZE_CLASSES];
+        for (int i = 0; i < SIZE_CLASSES; ++i) {
+            freeBySize[i] = new TreeSet<>();
+        }
+        reset();
+    }
+
+    /**
+     * Forgets every block and resets the statistics. Meant to be called along with resetting the memory.
+     */
+    public void reset() {
+        allocated.clear();
+        freeByAddress.clear();
+        for (NavigableSet<Integer> sizeClass : freeBySize) {
+            sizeClass.clear();
+        }
+        liveBytes = 0;
+        peakLiveBytes = 0;
+        freeBytes = 0;
+    }
+
+    /**
+     * Gets the size class of a block of the given size.
+     *
+     * @param size the size of the block in bytes.
+     * @return the size class of the block.
+     */
+    private static int sizeClass(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * Finds the address at which a block of the given size would be allocated, without allocating it.
+     *
+     * @param size the size of the block in bytes.
+     * @return the address of the block.
+     * @throws SimulationOutOfMemoryException if no free block fits and the heap cannot grow enough.
+     */
+    public int findFit(int size) throws SimulationOutOfMemoryException {
+        int sizeClass = sizeClass(size);
+        for (int address : freeBySize[sizeClass]) {
+            if (freeByAddress.get(address) >= size) {
+                return address;
+            }
+        }
+        for (int i = sizeClass + 1; i < SIZE_CLASSES; ++i) {
+            if (!freeBySize[i].isEmpty()) {
+                return freeBySize[i].first();
+            }
+        }
+        int top = memory.currentHeapPointer();
+        checkGrowth(top, size);
+        return top;
+    }
+
+    /**
+     * Determines if the block at the given address could be resized in place, because the bytes following it up to the
+     * new size are free or beyond the heap pointer.
+     *
+     * @param address the address of the allocated block.
+     * @param size    the new size of the block in bytes.
+     * @return true if the block can be resized in place, false otherwise.
+     */
+    public boolean canResize(int address, int size) {
+        int current = sizeOf(address);
+        if (size <= current) {
+            return true;
+        }
+        int end = address + current;
+        if (end == memory.currentHeapPointer()) {
+            return (long) address + size < stackPointer.getLong();
+        }
+        Integer next = freeByAddress.get(end);
+        return next != null && (long) current + next >= size;
+    }
+
+    /**
+     * Gets the size of the block allocated at the given address.
+     *
+     * @param address the address of the block.
+     * @return the size of the block in bytes, or 0 if no block is allocated at the address.
+     */
+    public int sizeOf(int address) {
+        return allocated.getOrDefault(address, 0);
+    }
+
+    /**
+     * Allocates the block of the given size at exactly the given address, which must be within a free block or at or
+     * beyond the heap pointer.
+     *
+     * @param address the address of the block.
+     * @param size    the size of the block in bytes.
+     * @throws SimulationException if the block overlaps memory which is not free or the heap cannot grow enough.
+     */
+    public void allocate(int address, int size) throws SimulationException {
+        int top = memory.currentHeapPointer();
+        if (address >= top) {
+            checkGrowth(top, address + size - top);
+            if (address > top) {
+                addFree(top, address - top);
+            }
+            memory.setHeapPointer(address + size);
+        } else {
+            Map.Entry<Integer, Integer> block = freeByAddress.floorEntry(address);
+            int blockEnd = block == null ? address : block.getKey() + block.getValue();
+            if (block == null || blockEnd < address + size) {
+                throw new SimulationException(
+                        String.format("Unable to allocate %d bytes at address %d which are in use", size, address));
+            }
+            removeFree(block.getKey());
+            if (block.getKey() < address) {
+                addFree(block.getKey(), address - block.getKey());
+            }
+            if (blockEnd > address + size) {
+                addFree(address + size, blockEnd - address - size);
+            }
+        }
+        allocated.put(address, size);
+        liveBytes += size;
+        peakLiveBytes = Math.max(peakLiveBytes, liveBytes);
+    }
+
+    /**
+     * Frees the block allocated at the given address, merging it with any free neighbors and returning it to the heap
+     * pointer if it reaches it.
+     *
+     * @param address the address of the block.
+     * @throws SimulationException if no block is allocated at the address.
+     */
+    public void free(int address) throws SimulationException {
+        Integer size = allocated.remove(address);
+        if (size == null) {
+            throw new SimulationException(String.format("Address %d is not the start of an allocated block", address));
+        }
+        liveBytes -= size;
+
+        int start = address;
+        int end = address + size;
+        Map.Entry<Integer, Integer> previous = freeByAddress.lowerEntry(address);
+        if (previous != null && previous.getKey() + previous.getValue() == start) {
+            start = previous.getKey();
+            removeFree(start);
+        }
+        Integer next = freeByAddress.get(end);
+        if (next != null) {
+            removeFree(end);
+            end += next;
+        }
+        if (end == memory.currentHeapPointer()) {
+            memory.setHeapPointer(start);
+        } else {
+            addFree(start, end - start);
+        }
+    }
+
+    /**
+     * Checks that the heap can grow from the given address by the given number of bytes without reaching the stack.
+     *
+     * @param from the address the heap grows from.
+     * @param size the number of bytes to grow by.
+     * @throws SimulationOutOfMemoryException if the heap would reach the stack.
+     */
+    private void checkGrowth(int from, long size) throws SimulationOutOfMemoryException {
+        if (from + size >= stackPointer.getLong()) {
+            throw new SimulationOutOfMemoryException(size);
+        }
+    }
+
+    private void addFree(int address, int size) {
+        freeByAddress.put(address, size);
+        freeBySize[sizeClass(size)].add(address);
+        freeBytes += size;
+    }
+
+    private void removeFree(int address) {
+        int size = freeByAddress.remove(address);
+        freeBySize[sizeClass(size)].remove(address);
+        freeBytes -= size;
+    }
+
+    /**
+     * Gets the number of bytes in allocated blocks.
+     *
+     * @return the number of bytes in allocated blocks.
+     */
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Gets the largest number of bytes which have been in allocated blocks at once since the last reset.
+     *
+     * @return the peak number of bytes in allocated blocks.
+     */
+    public long getPeakLiveBytes() {
+        return peakLiveBytes;
+    }
+
+    /**
+     * Gets the number of bytes in free blocks below the heap pointer.
+     *
+     * @return the number of bytes in free blocks.
+     */
+    public long getFreeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * Gets the size of the largest free block below the heap pointer.
+     *
+     * @return the size of the largest free block in bytes, or 0 if there are none.
+     */
+    public int getLargestFreeBlock() {
+        for (int i = SIZE_CLASSES - 1; i >= 0; --i) {
+            if (!freeBySize[i].isEmpty()) {
+                return freeBySize[i].stream().mapToInt(freeByAddress::get).max().orElse(0);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the external fragmentation of the free blocks: the fraction of free bytes which are not in the largest free
+     * block. Zero when the free space is a single block or there is none.
+     *
+     * @return the fragmentation between 0 and 1.
+     */
+    public double getFragmentation() {
+        return freeBytes == 0 ? 0 : 1 - (double) getLargestFreeBlock() / freeBytes;
+    }
+
+}
@@ -1,8 +1,14 @@
 package com.ezasm.simulation;
 
 import com.ezasm.simulation.exception.*;
+import com.ezasm.util.Conversion;
 import com.ezasm.util.RawData;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -35,6 +41,7 @@ public class Memory {
     private final byte[] memory;
     private int alloc;
     private int stringAlloc;
+    private boolean packedStrings;
 
     private final Map<String, RawData> stringAddressMap;
 
@@ -49,6 +56,7 @@ public class Memory {
         this.alloc = offsetBytes;
         this.stringAlloc = STRING_OFFSET * wordSize;
         this.stringAddressMap = new HashMap<>();
+        this.packedStrings = false;
         randomizeMemory();
     }
 
@@ -67,6 +75,7 @@ public class Memory {
         this.alloc = offsetBytes;
         this.stringAlloc = STRING_OFFSET * wordSize;
         this.stringAddressMap = new HashMap<>();
+        this.packedStrings = false;
         randomizeMemory();
     }
 
@@ -79,6 +88,46 @@ public class Memory {
         return wordSize;
     }
 
+    /**
+     * Sets whether strings are packed with one byte per character instead of one word per character. Applies to string
+     * immediates added afterward and to every instruction which reads or writes strings in memory.
+     *
+     * @param packedStrings true to store one character per byte, false to store one character per word.
+     */
+    public void setPackedStrings(boolean packedStrings) {
+        this.packedStrings = packedStrings;
+    }
+
+    /**
+     * Determines if strings are packed with one byte per character.
+     *
+     * @return true if strings are stored one character per byte, false if one character per word.
+     */
+    public boolean isPackedStrings() {
+        return packedStrings;
+    }
+
+    /**
+     * Gets the number of bytes each character of a string takes in memory.
+     *
+     * @return 1 if strings are packed, otherwise the word size.
+     */
+    public int characterSize() {
+        return packedStrings ? 1 : wordSize;
+    }
+
+    /**
+     * Converts the first characters of a string into the bytes of a null-terminated string in memory in the current
+     * string format.
+     *
+     * @param string the string to convert.
+     * @param length the number of characters of the string to convert.
+     * @return the bytes of the characters followed by a null terminator.
+     */
+    public byte[] encodeString(String string, int length) {
+        return packedStrings ? Conversion.stringToBytes(string, length) : Conversion.stringToWords(string, length);
+    }
+
     /**
      * Resets the memory by setting all values to zero and returning the allocation pointer to zero.
      */
@@ -168,7 +217,7 @@ public class Memory {
      * @return the information read from the memory at a certain address.
      */
     public RawData read(int address, int count) throws ReadOutOfBoundsException {
-        if (address < disallowedBytes || address + count > this.memorySize) {
+        if (address < disallowedBytes || count < 0 || (long) address + count > this.memorySize) {
             throw new ReadOutOfBoundsException(address);
         }
         return new RawData(Arrays.copyOfRange(memory, address, address + count));
@@ -184,6 +233,58 @@ public class Memory {
         return read(address, wordSize);
     }
 
+    /**
+     * Reads a null-terminated string in the current string format beginning at the given address.
+     *
+     * @param address the address of the first character of the string.
+     * @return the string read, not including the null terminator.
+     * @throws ReadOutOfBoundsException if the string runs out of readable memory before its terminator.
+     */
+    public String readString(int address) throws ReadOutOfBoundsException {
+        return readString(address, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads up to the given number of characters of a null-terminated string in the current string format beginning at
+     * the given address.
+     *
+     * @param address   the address of the first character of the string.
+     * @param maxLength the maximum number of characters to read.
+     * @return the string read, not including the null terminator.
+     * @throws ReadOutOfBoundsException if the string runs out of readable memory before its terminator.
+     */
+    public String readString(int address, int maxLength) throws ReadOutOfBoundsException {
+        StringBuilder builder = new StringBuilder();
+        int size = characterSize();
+        for (int i = 0; i < maxLength; ++i, address += size) {
+            if (address < disallowedBytes || (long) address + size > memorySize) {
+                throw new ReadOutOfBoundsException(address);
+            }
+            long current = packedStrings ? memory[address] & 0xFF : read(address).intValue();
+            if (current == 0) {
+                break;
+            }
+            builder.append((char) current);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Copies the memory beginning at the given address into the given array. Bytes which cannot be read are set to zero
+     * instead of causing an exception.
+     *
+     * @param address     the address to begin to copy from.
+     * @param destination the array to copy into; its length is the number of bytes copied.
+     */
+    public void copyReadable(int address, byte[] destination) {
+        Arrays.fill(destination, (byte) 0);
+        long from = Math.max((long) address, disallowedBytes);
+        long to = Math.min((long) address + destination.length, memorySize);
+        if (from < to) {
+            System.arraycopy(memory, (int) from, destination, (int) (from - address), (int) (to - from));
+        }
+    }
+
     /**
      * Writes data to the specified address.
      *
@@ -191,12 +292,23 @@ public class Memory {
      * @param data    the data to write.
      */
     public void write(int address, RawData data) throws SimulationException {
-        if (address < 0 || address + data.data().length > this.memorySize) {
+        checkWritable(address, data.data().length);
+        System.arraycopy(data.data(), 0, memory, address, data.data().length);
+    }
+
+    /**
+     * Checks that the given range of memory may be written to by a program.
+     *
+     * @param address the address of the first byte of the range.
+     * @param count   the number of bytes in the range.
+     * @throws SimulationException if the range is out of bounds or includes read-only memory.
+     */
+    public void checkWritable(int address, int count) throws SimulationException {
+        if (address < 0 || (long) address + count > this.memorySize) {
             throw new WriteOutOfBoundsException(address);
         } else if (address < offsetBytes) {
             throw new WriteToReadOnlyException(address);
         }
-        System.arraycopy(data.data(), 0, memory, address, data.data().length);
     }
 
     /**
@@ -212,6 +324,37 @@ public class Memory {
         System.arraycopy(data.data(), 0, memory, address, data.data().length);
     }
 
+    /**
+     * Copies the contents of a file into the heap at the given address with bulk channel reads straight into the
+     * memory, then moves the heap pointer past the loaded data if it is not already beyond it.
+     *
+     * @param address the address to load the file to.
+     * @param file    the file to load.
+     * @return the number of bytes loaded.
+     * @throws SimulationException if the file does not fit within the heap at the given address.
+     * @throws IOException         if there is an error reading the file.
+     */
+    public int preload(int address, Path file) throws SimulationException, IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > memorySize) {
+                throw new WriteOutOfBoundsException(address);
+            }
+            int length = (int) size;
+            checkWritable(address, length);
+            ByteBuffer buffer = ByteBuffer.wrap(memory, address, length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("The file ended before it was fully read");
+                }
+            }
+            if (address + length > alloc) {
+                setHeapPointer(address + length);
+            }
+            return length;
+        }
+    }
+
     /**
      * Writes string immediates to read-only memory if it is not already in there.
      *
@@ -222,16 +365,14 @@ public class Memory {
         for (String string : strings) {
             if (!stringAddressMap.containsKey(string)) {
                 // Write the string into read-only string memory
-                if (stringAlloc + string.length() >= offsetBytes) {
+                byte[] bytes = encodeString(string, string.length());
+                if (stringAlloc + (long) bytes.length > offsetBytes) {
                     throw new SimulationException("Attempted to write more string immediate bytes then possible");
                 }
-                for (int i = 0; i < string.length(); ++i) {
-                    unsafeWrite(stringAlloc + i * wordSize, new RawData(string.charAt(i)));
-                }
-                unsafeWrite(stringAlloc + string.length() * wordSize, RawData.emptyBytes(wordSize));
+                unsafeWrite(stringAlloc, new RawData(bytes));
 
                 stringAddressMap.put(string, new RawData(stringAlloc));
-                stringAlloc += (string.length() + 1) * wordSize;
+                stringAlloc += bytes.length;
             }
         }
     }
@@ -1,6 +1,5 @@
 package com.ezasm.simulation;
 
-import com.ezasm.gui.Window;
 import com.ezasm.util.Conversion;
 import com.ezasm.util.RawData;
 
@@ -71,18 +70,6 @@ public class Register {
         }
     }
 
-    /**
-     * Writes the data within the given array to the register. Also performs any necessary corresponding GUI updates.
-     *
-     * @param data the new data to write.
-     */
-    public void setDataWithGuiCallback(RawData data) {
-        setData(data);
-        if (Window.hasInstance()) { // GUI callback
-            Window.getInstance().getRegisterTable().addHighlightValue((int) this.number);
-        }
-    }
-
     public void setData(byte[] data) {
         if (number != 0)
             System.arraycopy(data, 0, this.data.data(), 0, this.data.data().length);
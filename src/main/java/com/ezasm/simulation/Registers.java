@@ -129,12 +129,29 @@ public class Registers {
             register = register.substring(1);
         if (registerByString.containsKey(register.toLowerCase()))
             return true;
-        try {
-            int attempt = Integer.parseInt(register);
-            return isRegister(attempt);
-        } catch (Exception ignored) {
+        return isRegister(parseRegisterNumber(register));
+    }
+
+    /**
+     * Parses the numerical register notation without relying on exceptions.
+     *
+     * @param register the String representing the register number.
+     * @return the register number, or -1 if the String is not a non-negative decimal number.
+     */
+    private static int parseRegisterNumber(String register) {
+        // Register numbers are small, so anything longer than this cannot be a register
+        if (register.isEmpty() || register.length() > 4) {
+            return -1;
         }
-        return false;
+        int number = 0;
+        for (int i = 0; i < register.length(); ++i) {
+            char c = register.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
     }
 
     /**
@@ -161,17 +178,11 @@ public class Registers {
             // TODO add appropriate exception
             throw new RuntimeException();
         }
-        try {
-            int attempt = Integer.parseInt(register);
-            if (isRegister(attempt)) {
-                return attempt;
-            } else {
-                // TODO add appropriate exception
-                throw new RuntimeException();
-            }
-        } catch (Exception ignored) {
+        Integer named = registerByString.get(register);
+        if (named != null) {
+            return named;
         }
-        return registerByString.get(register);
+        return parseRegisterNumber(register);
     }
 
     /**
@@ -2,9 +2,11 @@ package com.ezasm.simulation;
 
 import com.ezasm.instructions.InstructionDispatcher;
 import com.ezasm.instructions.targets.inputoutput.RegisterInputOutput;
-import com.ezasm.parsing.Lexer;
+import com.ezasm.parsing.DataDirective;
 import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ModuleCache;
 import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.event.SimulatorEventBus;
 import com.ezasm.simulation.exception.InvalidFileIdentifierException;
 import com.ezasm.simulation.exception.InvalidProgramCounterException;
 import com.ezasm.simulation.exception.SimulationException;
@@ -12,16 +14,17 @@ import com.ezasm.simulation.exception.SimulationInterruptedException;
 import com.ezasm.simulation.transform.Transformation;
 import com.ezasm.simulation.transform.TransformationSequence;
 import com.ezasm.simulation.transform.transformable.InputOutputTransformable;
-import com.ezasm.util.FileIO;
 import com.ezasm.util.RawData;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.collections4.BidiMap;
 import org.apache.commons.collections4.bidimap.DualHashBidiMap;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An implementation of a simulator which manages the memory, registers, and lines of code in an instance of the EzASM
@@ -41,12 +44,22 @@ public class Simulator {
     private final BidiMap<String, Integer> fileToIdentifier;
     private final Map<Integer, List<Line>> fileIdToLineArray;
     private final Map<String, Pair<Integer, Long>> labelToFileIdAndLineNumber;
+    private final Map<String, Integer> dataLabelToAddress;
+    private final ByteArrayOutputStream pendingData;
     private final Deque<TransformationSequence> transforms;
+    private final ModuleCache moduleCache;
+    private final SimulatorEventBus events;
+    private final FileDescriptorTable files;
+    private final HeapAllocator heap;
+    private final AtomicReference<SimulatorSnapshot> snapshot;
+    private volatile int snapshotMemoryAddress;
+    private volatile int snapshotMemoryLength;
 
     private final Register pc;
     private final Register fi;
     private String executionDirectory;
     private boolean canUndo;
+    private boolean intrinsicsEnabled;
 
     /**
      * Constructs a Simulator with the given word size and memory size specifications.
@@ -62,14 +75,25 @@ public class Simulator {
         this.fileToIdentifier = new DualHashBidiMap<>();
         this.fileIdToLineArray = new HashMap<>();
         this.labelToFileIdAndLineNumber = new HashMap<>();
+        this.dataLabelToAddress = new HashMap<>();
+        this.pendingData = new ByteArrayOutputStream();
         this.transforms = new ArrayDeque<>();
+        this.moduleCache = new ModuleCache();
+        this.events = new SimulatorEventBus();
+        this.files = new FileDescriptorTable();
+        this.heap = new HeapAllocator(memory, registers.getRegister(Registers.SP));
+        this.snapshot = new AtomicReference<>();
+        this.snapshotMemoryAddress = 0;
+        this.snapshotMemoryLength = 0;
 
         this.pc = registers.getRegister(Registers.PC);
         this.fi = registers.getRegister(Registers.FID);
         this.executionDirectory = "";
         this.canUndo = false;
+        this.intrinsicsEnabled = true;
 
         initialize();
+        publishSnapshot();
     }
 
     /**
@@ -81,11 +105,14 @@ public class Simulator {
     }
 
     /**
-     * Resets the contents of memory and registers.
+     * Resets the contents of memory and registers, forgets the blocks allocated on the heap, and closes any files the
+     * program opened.
      */
     public void resetData() {
         memory.reset();
+        heap.reset();
         registers.reset();
+        files.closeAll();
     }
 
     /**
@@ -96,7 +123,10 @@ public class Simulator {
         fileToIdentifier.clear();
         fileIdToLineArray.clear();
         labelToFileIdAndLineNumber.clear();
+        dataLabelToAddress.clear();
+        pendingData.reset();
         transforms.clear();
+        events.clear();
         initialize();
     }
 
@@ -112,6 +142,25 @@ public class Simulator {
         }
     }
 
+    /**
+     * Sets whether a call to a label naming an intrinsic which the program does not define runs the native
+     * implementation of the routine. A routine the program defines itself is always run as written.
+     *
+     * @param intrinsicsEnabled true to run intrinsics for undefined labels, false to never run intrinsics.
+     */
+    public void setIntrinsicsEnabled(boolean intrinsicsEnabled) {
+        this.intrinsicsEnabled = intrinsicsEnabled;
+    }
+
+    /**
+     * Determines if a call to a label naming an intrinsic runs the native implementation of the routine.
+     *
+     * @return true if intrinsics are enabled, false otherwise.
+     */
+    public boolean isIntrinsicsEnabled() {
+        return intrinsicsEnabled;
+    }
+
     /**
      * Gets all lines in current file.
      *
@@ -148,8 +197,11 @@ public class Simulator {
      */
     private void addLine(Line line, int fileId) throws ParseException {
         fileIdToLineArray.computeIfAbsent(fileId, k -> new ArrayList<>());
-        if (line.isLabel()) {
-            if (labelToFileIdAndLineNumber.containsKey(line.getLabel())) {
+        if (line.isData()) {
+            addData(line.getData());
+        } else if (line.isLabel()) {
+            if (labelToFileIdAndLineNumber.containsKey(line.getLabel())
+                    || dataLabelToAddress.containsKey(line.getLabel())) {
                 throw new ParseException(String.format("Label %s already declared", line.getLabel()));
             }
             labelToFileIdAndLineNumber.put(line.getLabel(),
@@ -163,6 +215,44 @@ public class Simulator {
         }
     }
 
+    /**
+     * Appends the data of a directive to the data waiting to be written to memory and assigns its label the address the
+     * data will be written to.
+     *
+     * @param data the data directive.
+     * @throws ParseException if the label of the directive is already declared.
+     */
+    private void addData(DataDirective data) throws ParseException {
+        if (data.label() != null) {
+            if (labelToFileIdAndLineNumber.containsKey(data.label()) || dataLabelToAddress.containsKey(data.label())) {
+                throw new ParseException(String.format("Label %s already declared", data.label()));
+            }
+            dataLabelToAddress.put(data.label(), memory.currentHeapPointer() + pendingData.size());
+        }
+        pendingData.writeBytes(data.data());
+    }
+
+    /**
+     * Writes the data of the directives added since the last call into the heap in a single copy and moves the heap
+     * pointer past it.
+     *
+     * @throws ParseException if the data does not fit in the heap.
+     */
+    private void writeData() throws ParseException {
+        if (pendingData.size() == 0) {
+            return;
+        }
+        int address = memory.currentHeapPointer();
+        byte[] data = pendingData.toByteArray();
+        pendingData.reset();
+        try {
+            memory.write(address, new RawData(data));
+            memory.setHeapPointer(address + data.length);
+        } catch (SimulationException e) {
+            throw new ParseException(String.format("Unable to fit %d bytes of data in memory", data.length));
+        }
+    }
+
     /**
      * Adds the given line to the program to the main file.
      *
@@ -170,30 +260,41 @@ public class Simulator {
      */
     public void addLine(Line line) throws ParseException {
         addLine(line, MAIN_FILE_IDENTIFIER);
+        writeData();
     }
 
     /**
-     * Parses the given text as a multi-line String. Then adds those lines to the program.
+     * Parses the given text as a multi-line String. Then adds those lines to the program. The parsed lines of imported
+     * files are kept in a cache which survives resets, so an unchanged file is only parsed once. Files are imported
+     * while the program runs, after the heap and stack are in use and outside of undo, so imported files may not
+     * declare data directives.
      *
      * @param file the relative path from the main file to the file to read lines from.
+     * @throws ParseException if the file cannot be read or declares data directives.
      */
     public void importLinesFromFile(String file) throws ParseException {
         String absoluteFilePath = executionDirectory + File.separator + file;
         if (fileToIdentifier.containsKey(absoluteFilePath)) {
             return;
         }
-        int fileId = fileToIdentifier.size();
-        fileToIdentifier.put(absoluteFilePath, fileId);
 
+        List<Line> content;
         try {
-            String contentText = FileIO.readFile(new File(absoluteFilePath));
-            List<Line> content = Lexer.parseLines(contentText);
-            for (Line line : content) {
-                addLine(line, fileId);
-            }
+            content = moduleCache.getLines(new File(absoluteFilePath));
         } catch (IOException e) {
             throw new ParseException(e.getMessage());
         }
+        for (Line line : content) {
+            if (line.isData()) {
+                throw new ParseException("Data directives may only be declared in the main file");
+            }
+        }
+
+        int fileId = fileToIdentifier.size();
+        fileToIdentifier.put(absoluteFilePath, fileId);
+        for (Line line : content) {
+            addLine(line, fileId);
+        }
     }
 
     /**
@@ -207,9 +308,11 @@ public class Simulator {
         parent = Objects.requireNonNullElse(parent, "");
         this.executionDirectory = parent;
         fileToIdentifier.put(mainFile.getAbsolutePath(), MAIN_FILE_IDENTIFIER);
+        moduleCache.prefetchImports(lines, executionDirectory);
         for (Line line : lines) {
             addLine(line, MAIN_FILE_IDENTIFIER);
         }
+        writeData();
     }
 
     /**
@@ -224,6 +327,7 @@ public class Simulator {
         for (Line line : lines) {
             addLine(line, MAIN_FILE_IDENTIFIER);
         }
+        writeData();
     }
 
     /**
@@ -234,7 +338,7 @@ public class Simulator {
      * @throws SimulationInterruptedException if an interrupt occurs while executing.
      */
     public void runLine(Line line) throws SimulationException, SimulationInterruptedException {
-        if (line.isLabel()) {
+        if (line.isLabel() || line.isData()) {
             applyTransformations(new TransformationSequence());
         } else {
             instructionDispatcher.execute(line);
@@ -264,7 +368,17 @@ public class Simulator {
         validateFID();
         int lineNumber = validatePC();
 
-        runLine(currentFileLines().get(lineNumber));
+        try {
+            runLine(currentFileLines().get(lineNumber));
+        } catch (SimulationException e) {
+            files.flushAll();
+            events.programFinished(true);
+            throw e;
+        }
+        if (isDone() || isError()) {
+            files.flushAll();
+            events.programFinished(isError());
+        }
     }
 
     /**
@@ -275,10 +389,15 @@ public class Simulator {
      * @throws SimulationException if there is an error in applying the transformation.
      */
     public void applyTransformations(TransformationSequence t) throws SimulationException {
-        t.apply();
-        InputOutputTransformable io = new InputOutputTransformable(this, new RegisterInputOutput(Registers.PC));
-        Transformation endOfLine = io.transformation(new RawData(io.get().intValue() + 1));
-        endOfLine.apply();
+        Transformation endOfLine;
+        try {
+            t.apply();
+            InputOutputTransformable io = new InputOutputTransformable(this, new RegisterInputOutput(Registers.PC));
+            endOfLine = io.transformation(new RawData(io.get().intValue() + 1));
+            endOfLine.apply();
+        } finally {
+            events.lineFinished((int) fi.getLong(), pc.getLong());
+        }
 
         if (canUndo) {
             transforms.push(t.concatenate(new TransformationSequence(endOfLine)));
@@ -295,7 +414,11 @@ public class Simulator {
         if (!canUndo || transforms.isEmpty()) {
             return false;
         }
-        transforms.pop().invert().apply();
+        try {
+            transforms.pop().invert().apply();
+        } finally {
+            events.lineFinished((int) fi.getLong(), pc.getLong());
+        }
         return true;
     }
 
@@ -342,6 +465,15 @@ public class Simulator {
         return labelToFileIdAndLineNumber;
     }
 
+    /**
+     * Gets the addresses of the data named by the labels of data directives.
+     *
+     * @return the data label mapping.
+     */
+    public Map<String, Integer> getDataLabelToAddress() {
+        return dataLabelToAddress;
+    }
+
     /**
      * Gets the registers representation of the program.
      *
@@ -360,6 +492,85 @@ public class Simulator {
         return memory;
     }
 
+    /**
+     * Gets the event bus through which listeners are notified of changes to this simulator.
+     *
+     * @return the event bus of this simulator.
+     */
+    public SimulatorEventBus getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the allocator of the heap, which tracks the blocks allocated by the program.
+     *
+     * @return the heap allocator of this simulator.
+     */
+    public HeapAllocator getHeap() {
+        return heap;
+    }
+
+    /**
+     * Gets the table of files opened by the program.
+     *
+     * @return the file descriptor table of this simulator.
+     */
+    public FileDescriptorTable getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets the directory which contains the main program file, which is empty for code not loaded from a file.
+     *
+     * @return the directory of the main program file.
+     */
+    public String getExecutionDirectory() {
+        return executionDirectory;
+    }
+
+    /**
+     * Sets the window of memory to include in the snapshots published from now on.
+     *
+     * @param address the address of the first byte of the window.
+     * @param length  the number of bytes in the window.
+     */
+    public void setSnapshotMemoryWindow(int address, int length) {
+        this.snapshotMemoryAddress = address;
+        this.snapshotMemoryLength = length;
+    }
+
+    /**
+     * Copies the current values of the registers and the window of memory into a new snapshot and publishes it. Must be
+     * called by the thread which is running the simulation, or while no simulation is running.
+     *
+     * @return the snapshot published.
+     */
+    public SimulatorSnapshot publishSnapshot() {
+        Register[] allRegisters = registers.getRegisters();
+        long[] registerValues = new long[allRegisters.length];
+        for (int i = 0; i < allRegisters.length; ++i) {
+            registerValues[i] = allRegisters[i].getLong();
+        }
+        int address = snapshotMemoryAddress;
+        byte[] window = new byte[snapshotMemoryLength];
+        memory.copyReadable(address, window);
+
+        SimulatorSnapshot previous = snapshot.get();
+        long version = previous == null ? 0 : previous.version() + 1;
+        SimulatorSnapshot published = new SimulatorSnapshot(version, registerValues, address, window);
+        snapshot.set(published);
+        return published;
+    }
+
+    /**
+     * Gets the most recently published snapshot of the simulator. Safe to call from any thread.
+     *
+     * @return the most recently published snapshot.
+     */
+    public SimulatorSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
     /**
      * Gets a file at a given file identifier.
      *
@@ -0,0 +1,75 @@
+package com.ezasm.simulation;
+
+import com.ezasm.util.RawData;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of the state of a simulator which is visible to the user: the values of all registers and one
+ * window of memory. Snapshots are published by the thread running the simulation so that other threads, such as the
+ * GUI, never read the registers or memory while they are being modified.
+ *
+ * @param version       the number of snapshots published before this one.
+ * @param registers     the value of each register, indexed by register number. Must not be modified.
+ * @param memoryAddress the address of the first byte of the window of memory.
+ * @param memory        the bytes of the window of memory; bytes which are out of bounds are zero. Must not be modified.
+ */
+public record SimulatorSnapshot(long version, long[] registers, int memoryAddress, byte[] memory) {
+
+    private static final int PC_NUMBER = Registers.getRegisterNumber(Registers.PC);
+    private static final int FID_NUMBER = Registers.getRegisterNumber(Registers.FID);
+
+    /**
+     * Gets the value of the given register.
+     *
+     * @param number the register number.
+     * @return the value of the register.
+     */
+    public long getRegister(int number) {
+        return registers[number];
+    }
+
+    /**
+     * Gets the value of the program counter.
+     *
+     * @return the value of the program counter.
+     */
+    public long pc() {
+        return registers[PC_NUMBER];
+    }
+
+    /**
+     * Gets the identifier of the file being executed.
+     *
+     * @return the identifier of the file being executed.
+     */
+    public long fid() {
+        return registers[FID_NUMBER];
+    }
+
+    /**
+     * Determines if the given word of memory is within the window of memory of this snapshot.
+     *
+     * @param address the address of the word.
+     * @return true if the entire word is within the window, false otherwise.
+     */
+    public boolean containsWord(int address) {
+        return address >= memoryAddress && address + Memory.getWordSize() <= memoryAddress + memory.length;
+    }
+
+    /**
+     * Reads one word from the window of memory of this snapshot.
+     *
+     * @param address the address of the word.
+     * @return the word read.
+     * @throws IndexOutOfBoundsException if the word is not within the window of memory.
+     */
+    public RawData readWord(int address) {
+        if (!containsWord(address)) {
+            throw new IndexOutOfBoundsException(address);
+        }
+        int from = address - memoryAddress;
+        return new RawData(Arrays.copyOfRange(memory, from, from + Memory.getWordSize()));
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.ezasm.simulation.event;
+
+/**
+ * The kinds of changes to a simulator which a <code>SimulatorListener</code> may be notified of.
+ */
+public enum SimulatorEvent {
+    /**
+     * One or more registers were written.
+     */
+    REGISTER_CHANGED,
+    /**
+     * A range of memory was written.
+     */
+    MEMORY_WRITTEN,
+    /**
+     * The program counter or file identifier changed, as it does after every line.
+     */
+    PROGRAM_COUNTER_CHANGED,
+    /**
+     * The program printed output.
+     */
+    OUTPUT_PRODUCED,
+    /**
+     * The program ran off of the end of its code or into an error.
+     */
+    PROGRAM_FINISHED
+}
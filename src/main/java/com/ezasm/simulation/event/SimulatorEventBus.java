@@ -0,0 +1,221 @@
+package com.ezasm.simulation.event;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the changes made to a simulator while a line executes and notifies the registered listeners of them in one
+ * batch after the line. Changes are only collected for events which at least one listener is registered for, so a
+ * simulator with no listeners only pays for one field read per change. Listeners may be added and removed from any
+ * thread; changes are recorded and dispatched on the thread running the simulation.
+ */
+public class SimulatorEventBus {
+
+    /**
+     * A listener along with the bitmask of the events it is registered for.
+     *
+     * @param listener the listener.
+     * @param events   the bitmask of events, indexed by ordinal.
+     */
+    private record Registration(SimulatorListener listener, int events) {
+    }
+
+    private static final int INITIAL_RANGES = 8;
+
+    private final List<Registration> registrations;
+
+    /**
+     * The bitmask of all events which at least one listener is registered for.
+     */
+    private volatile int interest;
+
+    private final BitSet changedRegisters;
+    private int[] rangeAddresses;
+    private int[] rangeLengths;
+    private int ranges;
+
+    /**
+     * Constructs an event bus with no listeners.
+     */
+    public SimulatorEventBus() {
+        this.registrations = new CopyOnWriteArrayList<>();
+        this.interest = 0;
+        this.changedRegisters = new BitSet();
+        this.rangeAddresses = new int[INITIAL_RANGES];
+        this.rangeLengths = new int[INITIAL_RANGES];
+        this.ranges = 0;
+    }
+
+    /**
+     * Registers the given listener to be notified of the given events.
+     *
+     * @param listener the listener to register.
+     * @param events   the events to notify the listener of.
+     */
+    public void addListener(SimulatorListener listener, Set<SimulatorEvent> events) {
+        int mask = 0;
+        for (SimulatorEvent event : events) {
+            mask |= bit(event);
+        }
+        registrations.add(new Registration(listener, mask));
+        updateInterest();
+    }
+
+    /**
+     * Unregisters the given listener from all events.
+     *
+     * @param listener the listener to unregister.
+     */
+    public void removeListener(SimulatorListener listener) {
+        registrations.removeIf(registration -> registration.listener() == listener);
+        updateInterest();
+    }
+
+    /**
+     * Determines if any listener is registered for the given event.
+     *
+     * @param event the event.
+     * @return true if any listener is registered for the event, false otherwise.
+     */
+    public boolean isListening(SimulatorEvent event) {
+        return (interest & bit(event)) != 0;
+    }
+
+    /**
+     * Records that the given register was written.
+     *
+     * @param number the number of the register.
+     */
+    public void registerChanged(int number) {
+        if (isListening(SimulatorEvent.REGISTER_CHANGED)) {
+            changedRegisters.set(number);
+        }
+    }
+
+    /**
+     * Records that the given range of memory was written. Merges the range with the previous one if they are adjacent
+     * or overlap.
+     *
+     * @param address the address of the first byte written.
+     * @param length  the number of bytes written.
+     */
+    public void memoryWritten(int address, int length) {
+        if (!isListening(SimulatorEvent.MEMORY_WRITTEN) || length <= 0) {
+            return;
+        }
+        if (ranges > 0) {
+            int last = ranges - 1;
+            long lastEnd = (long) rangeAddresses[last] + rangeLengths[last];
+            if (address <= lastEnd && (long) address + length >= rangeAddresses[last]) {
+                long start = Math.min(rangeAddresses[last], address);
+                long end = Math.max(lastEnd, (long) address + length);
+                rangeAddresses[last] = (int) start;
+                rangeLengths[last] = (int) (end - start);
+                return;
+            }
+        }
+        if (ranges == rangeAddresses.length) {
+            rangeAddresses = Arrays.copyOf(rangeAddresses, ranges * 2);
+            rangeLengths = Arrays.copyOf(rangeLengths, ranges * 2);
+        }
+        rangeAddresses[ranges] = address;
+        rangeLengths[ranges] = length;
+        ++ranges;
+    }
+
+    /**
+     * Notifies the listeners of output printed by the program. Output is not batched so that it is never reordered.
+     *
+     * @param output the text printed.
+     */
+    public void outputProduced(String output) {
+        if (!isListening(SimulatorEvent.OUTPUT_PRODUCED)) {
+            return;
+        }
+        int mask = bit(SimulatorEvent.OUTPUT_PRODUCED);
+        for (Registration registration : registrations) {
+            if ((registration.events() & mask) != 0) {
+                registration.listener().outputProduced(output);
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners of all changes recorded since the last line, then of the location of the next line.
+     *
+     * @param fid the identifier of the file of the next line.
+     * @param pc  the program counter of the next line.
+     */
+    public void lineFinished(int fid, long pc) {
+        if (interest == 0) {
+            clear();
+            return;
+        }
+        for (Registration registration : registrations) {
+            SimulatorListener listener = registration.listener();
+            int events = registration.events();
+            if ((events & bit(SimulatorEvent.REGISTER_CHANGED)) != 0 && !changedRegisters.isEmpty()) {
+                listener.registersChanged(changedRegisters);
+            }
+            if ((events & bit(SimulatorEvent.MEMORY_WRITTEN)) != 0) {
+                for (int i = 0; i < ranges; ++i) {
+                    listener.memoryWritten(rangeAddresses[i], rangeLengths[i]);
+                }
+            }
+            if ((events & bit(SimulatorEvent.PROGRAM_COUNTER_CHANGED)) != 0) {
+                listener.programCounterChanged(fid, pc);
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Notifies the listeners that the program finished.
+     *
+     * @param error true if the program finished due to an error, false if it ran off of the end of its code.
+     */
+    public void programFinished(boolean error) {
+        if (!isListening(SimulatorEvent.PROGRAM_FINISHED)) {
+            return;
+        }
+        int mask = bit(SimulatorEvent.PROGRAM_FINISHED);
+        for (Registration registration : registrations) {
+            if ((registration.events() & mask) != 0) {
+                registration.listener().programFinished(error);
+            }
+        }
+    }
+
+    /**
+     * Discards all changes recorded since the last line without notifying the listeners.
+     */
+    public void clear() {
+        changedRegisters.clear();
+        ranges = 0;
+    }
+
+    /**
+     * Recomputes the bitmask of all events which at least one listener is registered for.
+     */
+    private void updateInterest() {
+        int mask = 0;
+        for (Registration registration : registrations) {
+            mask |= registration.events();
+        }
+        interest = mask;
+    }
+
+    /**
+     * Gets the bit representing the given event in a bitmask of events.
+     *
+     * @param event the event.
+     * @return the bit representing the event.
+     */
+    private static int bit(SimulatorEvent event) {
+        return 1 << event.ordinal();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.ezasm.simulation.event;
+
+import java.util.BitSet;
+
+/**
+ * A listener for changes to a simulator. Listeners are notified on the thread running the simulation, once per line
+ * executed or undone, and only for the events they were registered for. Every method does nothing by default.
+ */
+public interface SimulatorListener {
+
+    /**
+     * Called after a line which wrote to one or more registers.
+     *
+     * @param registers the numbers of the registers written. Only valid for the duration of the call.
+     */
+    default void registersChanged(BitSet registers) {
+    }
+
+    /**
+     * Called after a line which wrote to memory, once per contiguous range written.
+     *
+     * @param address the address of the first byte written.
+     * @param length  the number of bytes written.
+     */
+    default void memoryWritten(int address, int length) {
+    }
+
+    /**
+     * Called after every line with the location of the next line to execute.
+     *
+     * @param fid the identifier of the file of the next line.
+     * @param pc  the program counter of the next line.
+     */
+    default void programCounterChanged(int fid, long pc) {
+    }
+
+    /**
+     * Called when the program prints output.
+     *
+     * @param output the text printed.
+     */
+    default void outputProduced(String output) {
+    }
+
+    /**
+     * Called after the line which finished the program.
+     *
+     * @param error true if the program finished due to an error, false if it ran off of the end of its code.
+     */
+    default void programFinished(boolean error) {
+    }
+
+}
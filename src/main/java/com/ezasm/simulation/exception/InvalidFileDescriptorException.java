@@ -0,0 +1,16 @@
+package com.ezasm.simulation.exception;
+
+/**
+ * Represents an exception due to attempting to use a file descriptor which is not open.
+ */
+public class InvalidFileDescriptorException extends SimulationException {
+
+    /**
+     * Constructs the exception with the given file descriptor.
+     *
+     * @param fd the file descriptor.
+     */
+    public InvalidFileDescriptorException(long fd) {
+        super(String.format("Invalid file descriptor (fd) value: %d", fd));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ezasm.simulation.transform.transformable;
+
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.util.RawData;
+
+/**
+ * Represents the position in a file opened by the program, so that reading from, writing to, or seeking in the file can
+ * be undone by returning to the position it was at before.
+ */
+public class FileCursorTransformable extends AbstractTransformableInput {
+
+    private final long fd;
+    private final long cursor;
+
+    /**
+     * Creates a transformation representing a change of the position in a file.
+     *
+     * @param simulator the simulator to use.
+     * @param fd        the file descriptor of the file.
+     * @param cursor    the position in the file before the change.
+     */
+    public FileCursorTransformable(Simulator simulator, long fd, long cursor) {
+        super(simulator);
+        this.fd = fd;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Gets the position in the file before the change as raw bytes.
+     *
+     * @return the position in the file before the change as raw bytes.
+     */
+    @Override
+    public RawData get() {
+        return new RawData(cursor);
+    }
+
+    /**
+     * Moves the position in the file to the given value interpreted as an integer.
+     *
+     * @param value the new position in the file.
+     * @throws SimulationException if the file is not open or the position cannot be moved.
+     */
+    @Override
+    public void set(RawData value) throws SimulationException {
+        simulator.getFiles().seek(fd, value.intValue());
+    }
+}
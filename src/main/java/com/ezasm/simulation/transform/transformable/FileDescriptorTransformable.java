@@ -0,0 +1,85 @@
+package com.ezasm.simulation.transform.transformable;
+
+import com.ezasm.simulation.FileDescriptorTable;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.util.RawData;
+
+/**
+ * Represents whether a file descriptor is open, so that opening and closing files can be undone. A value of 1 means the
+ * file is open and 0 means it is closed. An open may take the descriptor of a closed file, so the transformation of an
+ * open remembers both files and puts the closed one back in the descriptor when the open is undone.
+ */
+public class FileDescriptorTransformable extends AbstractTransformableInput {
+
+    private final long fd;
+    private final boolean open;
+    private final FileDescriptorTable.Descriptor replaced;
+    private final FileDescriptorTable.Descriptor opened;
+
+    /**
+     * Creates a transformation representing the opening or closing of a file.
+     *
+     * @param simulator the simulator to use.
+     * @param fd        the file descriptor of the file.
+     * @param open      whether the file was open before the change.
+     */
+    public FileDescriptorTransformable(Simulator simulator, long fd, boolean open) {
+        super(simulator);
+        this.fd = fd;
+        this.open = open;
+        this.replaced = null;
+        this.opened = null;
+    }
+
+    /**
+     * Creates a transformation representing the opening of a file which has just been opened in the given descriptor.
+     *
+     * @param simulator the simulator to use.
+     * @param fd        the file descriptor of the opened file.
+     * @param replaced  the closed file which was in the descriptor before the open, or null if there was none.
+     */
+    public FileDescriptorTransformable(Simulator simulator, long fd, FileDescriptorTable.Descriptor replaced) {
+        super(simulator);
+        this.fd = fd;
+        this.open = false;
+        this.replaced = replaced;
+        this.opened = simulator.getFiles().find(fd);
+    }
+
+    /**
+     * Gets whether the file was open before the change as raw bytes.
+     *
+     * @return 1 if the file was open before the change, 0 otherwise.
+     */
+    @Override
+    public RawData get() {
+        return new RawData(open ? 1 : 0);
+    }
+
+    /**
+     * Opens the file again if the given value is nonzero, or closes it otherwise.
+     *
+     * @param value whether the file should be open.
+     * @throws SimulationException if the file cannot be opened or closed.
+     */
+    @Override
+    public void set(RawData value) throws SimulationException {
+        FileDescriptorTable files = simulator.getFiles();
+        boolean shouldOpen = value.intValue() != 0;
+        if (opened != null) {
+            files.restore(fd, shouldOpen ? opened : replaced);
+            if (!shouldOpen) {
+                return;
+            }
+        }
+        if (shouldOpen == files.isOpen(fd)) {
+            return;
+        }
+        if (shouldOpen) {
+            files.reopen(fd);
+        } else {
+            files.close(fd);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ezasm.simulation.transform.transformable;
+
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.util.RawData;
+
+/**
+ * Represents the block of the heap allocated at an address, whose value is the size of the block or 0 if no block is
+ * allocated there. Setting a size allocates the block at exactly that address and setting 0 frees it, so allocating and
+ * freeing are undone by the inverse change.
+ */
+public class HeapBlockTransformable extends AbstractTransformableInput {
+
+    private final int address;
+
+    /**
+     * Constructs a representation of the heap block at the given address.
+     *
+     * @param simulator the simulator to use.
+     * @param address   the address of the block.
+     */
+    public HeapBlockTransformable(Simulator simulator, int address) {
+        super(simulator);
+        this.address = address;
+    }
+
+    /**
+     * Gets the size of the block allocated at the address.
+     *
+     * @return the size of the block, or 0 if none is allocated.
+     */
+    @Override
+    public RawData get() {
+        return new RawData(simulator.getHeap().sizeOf(address));
+    }
+
+    /**
+     * Allocates the block at the address with the given size, or frees it if the size is 0.
+     *
+     * @param value the new size of the block.
+     * @throws SimulationException if the block cannot be allocated or freed.
+     */
+    @Override
+    public void set(RawData value) throws SimulationException {
+        int size = (int) value.intValue();
+        if (size == simulator.getHeap().sizeOf(address)) {
+            return;
+        }
+        if (simulator.getHeap().sizeOf(address) != 0) {
+            simulator.getHeap().free(address);
+        }
+        if (size != 0) {
+            simulator.getHeap().allocate(address, size);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ezasm.simulation.transform.transformable;
+
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.transform.Transformation;
+import com.ezasm.util.RawData;
+
+/**
+ * Represents a contiguous range of bytes of memory as a single transformable field, so that writing the whole range is
+ * recorded as one transformation holding the old and new bytes of the range.
+ */
+public class MemoryRangeTransformable extends AbstractTransformableInput {
+
+    private final int address;
+    private final int length;
+
+    /**
+     * Constructs a representation of a range of memory as a transformable field.
+     *
+     * @param simulator the simulator we are acting on.
+     * @param address   the address of the first byte of the range.
+     * @param length    the number of bytes in the range.
+     */
+    public MemoryRangeTransformable(Simulator simulator, int address, int length) {
+        super(simulator);
+        this.address = address;
+        this.length = length;
+    }
+
+    /**
+     * Gets the bytes of the range of memory.
+     *
+     * @return the bytes of the range of memory.
+     * @throws SimulationException if there is an error reading from the memory.
+     */
+    @Override
+    public RawData get() throws SimulationException {
+        return simulator.getMemory().read(address, length);
+    }
+
+    /**
+     * Sets the bytes of the range of memory.
+     *
+     * @param value the bytes to store in memory.
+     * @throws SimulationException if there is an error writing to the memory.
+     */
+    @Override
+    public void set(RawData value) throws SimulationException {
+        simulator.getMemory().write(address, value);
+        simulator.getEvents().memoryWritten(address, value.data().length);
+    }
+
+    /**
+     * Creates a transformation which writes the given bytes over the range of memory. Checks that the range may be
+     * written before reading the bytes it currently holds.
+     *
+     * @param value the new bytes of the range.
+     * @return the created transformation.
+     * @throws SimulationException if the range cannot be written or the value is not the length of the range.
+     */
+    @Override
+    public Transformation transformation(RawData value) throws SimulationException {
+        if (value.data().length != length) {
+            throw new SimulationException("The data written does not match the length of the memory range");
+        }
+        simulator.getMemory().checkWritable(address, length);
+        return super.transformation(value);
+    }
+}
@@ -42,5 +42,6 @@ public class MemoryTransformable extends AbstractTransformableInput {
     @Override
     public void set(RawData value) throws SimulationException {
         simulator.getMemory().write((int) address, value);
+        simulator.getEvents().memoryWritten((int) address, value.data().length);
     }
 }
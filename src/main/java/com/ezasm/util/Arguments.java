@@ -39,6 +39,14 @@ public class Arguments {
         options.addOption(wordSizeOption);
         wordSizeOption.setArgName("word size");
 
+        Option packedStringsOption = new Option("c", "packed-strings", false,
+                "Store strings with one byte per character instead of one word per character\n(default: disabled)");
+        options.addOption(packedStringsOption);
+
+        Option noIntrinsicsOption = new Option("n", "no-intrinsics", false,
+                "Do not provide native strlen, memcmp, atoi and itoa routines to programs which do not define them\n(default: intrinsics enabled)");
+        options.addOption(noIntrinsicsOption);
+
         Option debugOption = new Option("d", "debug", false,
                 "Run in debug mode. Output errors to the terminal instead of the integrated console.");
         options.addOption(debugOption);
@@ -52,6 +60,15 @@ public class Arguments {
         options.addOption(outputOption);
         outputOption.setArgName("output file path");
 
+        Option bufferedOutputOption = new Option("b", "buffered-output", false,
+                "Buffer program output in windowless mode and write it on a separate thread\n(default: enabled when output is not a terminal)");
+        options.addOption(bufferedOutputOption);
+
+        Option preloadOption = new Option("p", "preload", true,
+                "A file to load into the heap before the program runs, at the given address or else the heap pointer; may be repeated (windowless mode only)");
+        options.addOption(preloadOption);
+        preloadOption.setArgName("file[@address]");
+
         CommandLineParser parser = new DefaultParser();
         CommandLine commandLine = null;
 
@@ -106,6 +123,8 @@ public class Arguments {
         }
 
         Simulator sim = new Simulator(wordSize, memorySize);
+        sim.getMemory().setPackedStrings(commandLine.hasOption(packedStringsOption));
+        sim.setIntrinsicsEnabled(!commandLine.hasOption(noIntrinsicsOption));
         String filepath = "";
 
         if (commandLine.getArgs().length > 1) {
@@ -138,8 +157,31 @@ public class Arguments {
             } else {
                 cli = new CommandLineInterface(sim, filepath, inputpath, outputpath);
             }
+            if (commandLine.hasOption(preloadOption)) {
+                for (String preload : commandLine.getOptionValues(preloadOption)) {
+                    int separator = preload.lastIndexOf('@');
+                    if (separator < 0) {
+                        cli.preload(preload);
+                        continue;
+                    }
+                    try {
+                        long address = Long.decode(preload.substring(separator + 1).replace("_", ""));
+                        if (address < 0 || address > Integer.MAX_VALUE) {
+                            errorArgs(options, "Preload address is out of range");
+                        }
+                        cli.preload(preload.substring(0, separator), (int) address);
+                    } catch (NumberFormatException e) {
+                        errorArgs(options, "Unable to parse given preload address");
+                    }
+                }
+            }
+            cli.setAsyncOutput(
+                    commandLine.hasOption(bufferedOutputOption) || !outputpath.equals("") || System.console() == null);
             cli.startSimulation();
         } else {
+            if (commandLine.hasOption(preloadOption)) {
+                errorArgs(options, "Preloading files is only supported in windowless mode");
+            }
             if (!inputpath.equals("") || !outputpath.equals("")) {
                 Window.instantiate(sim, config, debugMode, inputpath, outputpath);
             } else {
@@ -0,0 +1,216 @@
+package com.ezasm.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An output stream which collects writes into large buffers and hands each filled buffer to a dedicated writer thread,
+ * so that the thread producing the output never waits on the underlying stream until the bounded queue of buffers is
+ * full. Flushing waits until everything written so far has reached the underlying stream. An error on the writer thread
+ * is reported by the next write or flush.
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 8;
+
+    /**
+     * A buffer handed to the writer thread.
+     *
+     * @param data    the bytes to write, or null to stop the writer thread.
+     * @param length  the number of bytes of data to write.
+     * @param flushed the latch to count down once the data has been written and flushed, or null to not flush.
+     */
+    private record Chunk(byte[] data, int length, CountDownLatch flushed) {
+    }
+
+    private static final Chunk STOP = new Chunk(null, 0, null);
+
+    private final OutputStream outputStream;
+    private final BlockingQueue<Chunk> queue;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final Thread writer;
+
+    private byte[] buffer;
+    private int count;
+    private boolean unflushed;
+    private boolean closed;
+    private volatile IOException error;
+
+    /**
+     * Constructs an asynchronous output stream which writes to the given stream and starts its writer thread.
+     *
+     * @param outputStream the stream to write to.
+     */
+    public AsyncOutputStream(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.freeBuffers = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.buffer = new byte[BUFFER_SIZE];
+        this.count = 0;
+        this.unflushed = false;
+        this.closed = false;
+        this.error = null;
+        this.writer = new Thread(this::writeLoop, "EzASM output writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Writes one byte to the buffer, handing the buffer to the writer thread first if it is full.
+     *
+     * @param b the byte to write.
+     * @throws IOException if the stream is closed or the writer thread failed.
+     */
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            handOff(null);
+        }
+        buffer[count++] = (byte) b;
+        unflushed = true;
+    }
+
+    /**
+     * Writes the given bytes to the buffer, handing the buffer to the writer thread each time it fills.
+     *
+     * @param b   the bytes to write.
+     * @param off the start offset in array {@code b} of the bytes to write.
+     * @param len the number of bytes to write.
+     * @throws IOException if the stream is closed or the writer thread failed.
+     */
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                handOff(null);
+            }
+            int copied = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, copied);
+            count += copied;
+            off += copied;
+            len -= copied;
+            unflushed = true;
+        }
+    }
+
+    /**
+     * Waits until everything written so far has been written to and flushed from the underlying stream. Returns
+     * immediately if nothing has been written since the last flush.
+     *
+     * @throws IOException if the stream is closed, the writer thread failed, or the wait was interrupted.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (!unflushed) {
+            return;
+        }
+        CountDownLatch flushed = new CountDownLatch(1);
+        handOff(flushed);
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing output");
+        }
+        unflushed = false;
+        ensureOpen();
+    }
+
+    /**
+     * Flushes the stream, stops the writer thread, and closes the underlying stream.
+     *
+     * @throws IOException if the writer thread failed or an error occurs closing the underlying stream.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            try {
+                queue.put(STOP);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Hands the current buffer to the writer thread, waiting if the queue is full, and starts a new buffer.
+     *
+     * @param flushed the latch to count down once the buffer has been written and flushed, or null to not flush.
+     * @throws IOException if the wait was interrupted.
+     */
+    private void handOff(CountDownLatch flushed) throws IOException {
+        try {
+            queue.put(new Chunk(buffer, count, flushed));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing output");
+        }
+        byte[] free = freeBuffers.poll();
+        buffer = free == null ? new byte[BUFFER_SIZE] : free;
+        count = 0;
+    }
+
+    /**
+     * Throws if this stream can no longer be written to.
+     *
+     * @throws IOException if the stream is closed or the writer thread failed.
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Writes the buffers handed off until told to stop. After an error, buffers are discarded so that the producing
+     * thread never waits forever.
+     */
+    private void writeLoop() {
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (chunk == STOP) {
+                return;
+            }
+            try {
+                if (error == null) {
+                    outputStream.write(chunk.data(), 0, chunk.length());
+                    if (chunk.flushed() != null) {
+                        outputStream.flush();
+                    }
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                freeBuffers.offer(chunk.data());
+                if (chunk.flushed() != null) {
+                    chunk.flushed().countDown();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.ezasm.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An input stream which reads from a file channel and can seek within it. Meant to be read in blocks, for example by a
+ * buffered reader, since every read is a read of the channel.
+ */
+public class ChannelInputStream extends InputStream implements Seekable {
+
+    private final FileChannel channel;
+    private final ByteBuffer single;
+
+    /**
+     * Constructs an input stream which reads from the given channel from its current position.
+     *
+     * @param channel the channel to read from.
+     */
+    public ChannelInputStream(FileChannel channel) {
+        this.channel = channel;
+        this.single = ByteBuffer.allocate(1);
+    }
+
+    /**
+     * Seeks to the given position in the channel.
+     *
+     * @param pos the position to seek to.
+     * @throws IOException if an error occurs in seeking.
+     */
+    @Override
+    public void seek(long pos) throws IOException {
+        channel.position(pos);
+    }
+
+    /**
+     * Reads one byte from the channel. Returns a value in [0,255] normally or [-1] if the end of the channel is
+     * reached.
+     *
+     * @return the character read or -1 if the end of the channel is reached.
+     * @throws IOException if there is an error reading from the channel.
+     */
+    @Override
+    public int read() throws IOException {
+        single.clear();
+        if (channel.read(single) <= 0) {
+            return -1;
+        }
+        return single.get(0) & 0xFF;
+    }
+
+    /**
+     * Reads up to len bytes from the channel into the given array in one read.
+     *
+     * @param b   the buffer into which the data is read.
+     * @param off the start offset in array {@code b} at which the data is written.
+     * @param len the maximum number of bytes to read.
+     * @return the number of bytes read or -1 if the end of the channel is reached.
+     * @throws IOException if there is an error reading from the channel.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        return channel.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    /**
+     * Gets the exact number of bytes left to read in the channel from its current position.
+     *
+     * @return the number of bytes available to read in the channel from its current position.
+     * @throws IOException if an error occurs accessing the channel.
+     */
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - channel.position()));
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if there is an error closing the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
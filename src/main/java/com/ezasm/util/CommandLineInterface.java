@@ -15,6 +15,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 
@@ -28,6 +32,7 @@ public class CommandLineInterface {
     private final boolean cli;
     private InputStream inputStream = null;
     private OutputStream outputStream = null;
+    private boolean asyncOutput = false;
 
     /**
      * Constructs a basic CLI based on the given Simulator. This CLI will read from the terminal until the program is
@@ -81,7 +86,13 @@ public class CommandLineInterface {
 
         try {
             if (inputFilePath.length() > 0) {
-                inputStream = new FileInputStream(new File(inputFilePath));
+                File inputFile = new File(inputFilePath);
+                // Pipes and other special files cannot be mapped, so only regular files are read through a mapping
+                if (Files.isRegularFile(inputFile.toPath())) {
+                    inputStream = new MappedFileStream(inputFile);
+                } else {
+                    inputStream = new FileInputStream(inputFile);
+                }
             } else {
                 inputStream = System.in;
             }
@@ -103,6 +114,48 @@ public class CommandLineInterface {
         }
     }
 
+    /**
+     * Sets whether program output is buffered and written on a separate thread. Buffered output is only flushed when
+     * the program reads input, finishes, or fails.
+     *
+     * @param asyncOutput true to buffer program output, false to write it immediately.
+     */
+    public void setAsyncOutput(boolean asyncOutput) {
+        this.asyncOutput = asyncOutput;
+    }
+
+    /**
+     * Loads the contents of a file into the heap at the current heap pointer before the program runs.
+     *
+     * @param filePath the file to load.
+     */
+    public void preload(String filePath) {
+        preload(filePath, simulator.getMemory().currentHeapPointer());
+    }
+
+    /**
+     * Loads the contents of a file into the heap at the given address before the program runs and moves the heap
+     * pointer past it. Reports the number of bytes loaded and where on the standard error stream.
+     *
+     * @param filePath the file to load.
+     * @param address  the address to load the file to.
+     */
+    public void preload(String filePath, int address) {
+        try {
+            long start = System.nanoTime();
+            int length = simulator.getMemory().preload(address, Path.of(filePath));
+            long elapsedMS = (System.nanoTime() - start) / 1_000_000;
+            SystemStreams.err.printf("Preloaded %d bytes from %s at 0x%X-0x%X in %d ms\n", length, filePath, address,
+                    address + length, elapsedMS);
+        } catch (NoSuchFileException e) {
+            SystemStreams.err.printf("Unable to preload %s: the file does not exist\n", filePath);
+            System.exit(1);
+        } catch (SimulationException | IOException | InvalidPathException e) {
+            SystemStreams.err.printf("Unable to preload %s at 0x%X: %s\n", filePath, address, e.getMessage());
+            System.exit(1);
+        }
+    }
+
     /**
      * Begins the simulation. Starts reading CLI input or reads and executes from the given file.
      */
@@ -110,7 +163,10 @@ public class CommandLineInterface {
         if (inputStream != null) {
             TerminalInstructions.streams().setInputStream(inputStream);
         }
-        if (outputStream != null) {
+        if (asyncOutput) {
+            OutputStream target = outputStream == null ? TerminalInstructions.DEFAULT_OUTPUT_STREAM : outputStream;
+            TerminalInstructions.streams().setOutputStream(new AsyncOutputStream(target), false);
+        } else if (outputStream != null) {
             TerminalInstructions.streams().setOutputStream(outputStream);
         }
         if (cli) {
@@ -134,6 +190,7 @@ public class CommandLineInterface {
                 }
                 SimulationInterruptedException.handleInterrupts();
             } catch (ParseException | SimulationException | SimulationInterruptedException e) {
+                TerminalInstructions.streams().flushOutput();
                 SystemStreams.err.println(e.getMessage());
                 SystemStreams.err.flush();
                 try {
@@ -142,6 +199,7 @@ public class CommandLineInterface {
                 }
             }
         }
+        TerminalInstructions.streams().flushOutput();
     }
 
     /**
@@ -152,7 +210,11 @@ public class CommandLineInterface {
             simulator.executeProgramFromPC();
         } catch (SimulationInterruptedException ignored) {
         } catch (SimulationException e) {
+            TerminalInstructions.streams().flushOutput();
             SystemStreams.err.println(e.getMessage());
+        } finally {
+            // Output is buffered, so it must be flushed even if the program fails unexpectedly
+            TerminalInstructions.streams().flushOutput();
         }
         System.exit((int) simulator.getRegisters().getRegister(Registers.R0).getLong());
     }
@@ -24,6 +24,42 @@ public class Conversion {
         return null;
     }
 
+    /**
+     * Converts the first characters of a string into the bytes of a null-terminated string in memory, where each
+     * character and the terminator take one word.
+     *
+     * @param string the string to convert.
+     * @param length the number of characters of the string to convert.
+     * @return the byte data representation of the characters followed by a word of zeroes.
+     */
+    public static byte[] stringToWords(String string, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate((length + 1) * Memory.getWordSize());
+        for (int i = 0; i < length; ++i) {
+            if (Memory.getWordSize() == 4) {
+                buffer.putInt(string.charAt(i));
+            } else {
+                buffer.putLong(string.charAt(i));
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Converts the first characters of a string into the bytes of a packed null-terminated string in memory, where each
+     * character and the terminator take one byte. Characters are truncated to their low eight bits.
+     *
+     * @param string the string to convert.
+     * @param length the number of characters of the string to convert.
+     * @return the byte data representation of the characters followed by a zero byte.
+     */
+    public static byte[] stringToBytes(String string, int length) {
+        byte[] bytes = new byte[length + 1];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) string.charAt(i);
+        }
+        return bytes;
+    }
+
     /**
      * Converts an array of bytes into the corresponding long.
      *
@@ -0,0 +1,205 @@
+package com.ezasm.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An input stream which reads a file through a read-only memory mapping. Reads are memory loads rather than system
+ * calls, and seeking only changes the position, so moving back and forth through the file is immediate. The contents
+ * and length of the file are fixed when the file is mapped, so a file which may have changed since must be remapped
+ * with {@link #remap()} before it is read again.
+ */
+public class MappedFileStream extends InputStream implements Seekable {
+
+    /**
+     * The number of bits of a position which index within a segment. Files are mapped in segments because a single
+     * mapping cannot exceed 2 GiB.
+     */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final File file;
+    private MappedByteBuffer[] segments;
+    private long length;
+    private long position;
+    private long mark;
+
+    /**
+     * Constructs a file stream which maps the given file into memory.
+     *
+     * @param file the file to read from in the stream.
+     * @throws IOException if the file does not exist or cannot be mapped.
+     */
+    public MappedFileStream(File file) throws IOException {
+        super();
+        this.file = file;
+        remap();
+    }
+
+    /**
+     * Maps the file into memory again so that its current contents and length are read, and returns to the start of the
+     * file.
+     *
+     * @throws IOException if the file no longer exists or cannot be mapped.
+     */
+    public void remap() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < mapped.length; ++i) {
+                long start = (long) i << SEGMENT_BITS;
+                mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+            this.segments = mapped;
+            this.length = size;
+        }
+        this.position = 0;
+        this.mark = 0;
+    }
+
+    /**
+     * Seeks to the given position in the file.
+     *
+     * @param pos the position to seek to.
+     * @throws IOException if the position is negative.
+     */
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0) {
+            throw new IOException("Cannot seek to a negative position");
+        }
+        position = pos;
+    }
+
+    /**
+     * Gets the current position in the file.
+     *
+     * @return the current position in the file.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the length of the file.
+     *
+     * @return the length of the file in bytes.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Reads one byte from the file. Returns a value in [0,255] normally or [-1] if the end of the file is reached.
+     *
+     * @return the character read or -1 if the end of the file is reached.
+     */
+    @Override
+    public int read() {
+        if (position >= length) {
+            return -1;
+        }
+        byte b = segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+        ++position;
+        return b & 0xFF;
+    }
+
+    /**
+     * Copies up to len bytes from the file into the given array.
+     *
+     * @param b   the buffer into which the data is read.
+     * @param off the start offset in array {@code b} at which the data is written.
+     * @param len the maximum number of bytes to read.
+     * @return the number of bytes read or -1 if the end of the file is reached.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int read = 0;
+        while (read < len && position < length) {
+            int offset = (int) (position & SEGMENT_MASK);
+            int count = (int) Math.min(len - read, Math.min(length - position, SEGMENT_SIZE - offset));
+            segments[(int) (position >>> SEGMENT_BITS)].get(offset, b, off + read, count);
+            read += count;
+            position += count;
+        }
+        return read;
+    }
+
+    /**
+     * Moves the cursor ahead by up to n bytes, stopping at the end of the file.
+     *
+     * @param n the number of bytes to be skipped.
+     * @return the number of bytes skipped.
+     */
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, length - position));
+        position += skipped;
+        return skipped;
+    }
+
+    /**
+     * Gets the exact number of bytes left to read in the file from the current cursor position, or
+     * {@link Integer#MAX_VALUE} if there are more.
+     *
+     * @return the number of bytes available to read in the file from the current cursor position.
+     */
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, length - position));
+    }
+
+    /**
+     * Releases the mappings of the file. They are unmapped once they are no longer reachable, and the stream reads as
+     * empty until it is remapped.
+     */
+    @Override
+    public void close() {
+        segments = new MappedByteBuffer[0];
+        length = 0;
+        position = 0;
+        mark = 0;
+    }
+
+    /**
+     * Determines if this stream supports mark and reset, which it always does.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Marks the current position in the file.
+     *
+     * @param readLimit ignored, as any position can be returned to.
+     */
+    @Override
+    public synchronized void mark(int readLimit) {
+        mark = position;
+    }
+
+    /**
+     * Returns to the last marked position in the file, or the start of the file if none was marked.
+     */
+    @Override
+    public synchronized void reset() {
+        position = mark;
+    }
+
+}
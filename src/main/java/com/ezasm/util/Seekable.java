@@ -0,0 +1,18 @@
+package com.ezasm.util;
+
+import java.io.IOException;
+
+/**
+ * Represents a stream whose position can be moved to any point.
+ */
+public interface Seekable {
+
+    /**
+     * Seeks to the given position in the stream.
+     *
+     * @param pos the position to seek to.
+     * @throws IOException if an error occurs in seeking.
+     */
+    void seek(long pos) throws IOException;
+
+}
@@ -0,0 +1,130 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import com.ezasm.util.MappedFileStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferedTokenReaderTest {
+
+    private static BufferedTokenReader readerOf(String text) {
+        return new BufferedTokenReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    public void testReadLong() throws IOException, SimulationInterruptedException {
+        BufferedTokenReader reader = readerOf(
+                "  42\n-7 +3 9223372036854775807 -9223372036854775808 9223372036854775808 12a 5");
+        assertEquals(42, reader.readLong());
+        assertEquals(-7, reader.readLong());
+        assertEquals(3, reader.readLong());
+        assertEquals(Long.MAX_VALUE, reader.readLong());
+        assertEquals(Long.MIN_VALUE, reader.readLong());
+        assertThrows(NumberFormatException.class, reader::readLong);
+        assertThrows(NumberFormatException.class, reader::readLong);
+        assertEquals(5, reader.readLong());
+        assertThrows(EOFException.class, reader::readLong);
+    }
+
+    @Test
+    public void testReadDoubleMatchesParseDouble() throws IOException, SimulationInterruptedException {
+        String[] words = { "0", "-0.0", "1.5", "3.14159", ".5", "5.", "1e10", "2.5E-3", "-123456789.012345", "0.1",
+                "0.30000000000000004", "1e300", "4.9e-324", "123456789012345678", "0x1p3", "NaN", "-Infinity", "7d" };
+        BufferedTokenReader reader = readerOf(String.join(" ", words));
+        for (String word : words) {
+            assertEquals(Double.parseDouble(word), reader.readDouble(), word);
+        }
+        assertThrows(NumberFormatException.class, () -> readerOf("1.2.3").readDouble());
+    }
+
+    @Test
+    public void testReadWordsAndLines() throws IOException, SimulationInterruptedException {
+        BufferedTokenReader reader = readerOf("hello  world\nsecond line\nlast");
+        assertEquals('h', reader.readChar());
+        assertEquals("ello", reader.readWord());
+        assertEquals("world", reader.readWord());
+        assertEquals("second line\n", reader.readLine());
+        assertEquals("last", reader.readLine());
+        assertThrows(EOFException.class, reader::readLine);
+    }
+
+    @Test
+    public void testPositionAndSeek() throws IOException, SimulationInterruptedException {
+        File file = File.createTempFile("ezasm", ".txt");
+        file.deleteOnExit();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; ++i) {
+            text.append(i).append('\n');
+        }
+        Files.writeString(file.toPath(), text);
+
+        try (MappedFileStream stream = new MappedFileStream(file)) {
+            assertEquals(file.length(), stream.available());
+            BufferedTokenReader reader = new BufferedTokenReader(stream);
+            assertEquals(0, reader.readLong());
+            assertEquals(2, reader.getPosition());
+            long position = reader.getPosition();
+            for (int i = 1; i < 4000; ++i) {
+                assertEquals(i, reader.readLong());
+            }
+            // Outside of the current buffer
+            reader.seek(position);
+            assertEquals(1, reader.readLong());
+            assertEquals(4, reader.getPosition());
+            // Inside of the current buffer
+            reader.seek(position);
+            assertEquals(1, reader.readLong());
+        }
+    }
+
+    @Test
+    public void testResetRemapsEditedFile() throws Exception {
+        File file = File.createTempFile("ezasm", ".txt");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "1 2 3");
+
+        try (MappedFileStream stream = new MappedFileStream(file)) {
+            StreamManager streams = new StreamManager(stream, new ByteArrayOutputStream());
+            assertEquals(1, streams.readLong());
+            Files.writeString(file.toPath(), "4 5 6 7");
+            streams.resetInputStream();
+            assertEquals(4, streams.readLong());
+            Files.writeString(file.toPath(), "8");
+            streams.resetInputStream();
+            assertEquals(8, streams.readLong());
+            assertThrows(SimulationException.class, streams::readLong);
+        }
+    }
+
+    @Test
+    public void testReadBytes() throws IOException, SimulationInterruptedException {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) i;
+        }
+        BufferedTokenReader reader = new BufferedTokenReader(new ByteArrayInputStream(data));
+        byte[] small = new byte[10];
+        assertEquals(10, reader.readBytes(small, 0, 10));
+        assertArrayEquals(Arrays.copyOfRange(data, 0, 10), small);
+
+        byte[] large = new byte[19000];
+        assertEquals(19000, reader.readBytes(large, 0, large.length));
+        assertArrayEquals(Arrays.copyOfRange(data, 10, 19010), large);
+        assertEquals(19010, reader.getPosition());
+
+        assertEquals(990, reader.readBytes(large, 0, large.length));
+        assertEquals(data.length, reader.getPosition());
+    }
+
+}
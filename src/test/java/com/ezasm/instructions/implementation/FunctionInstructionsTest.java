@@ -0,0 +1,83 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class FunctionInstructionsTest {
+
+    private static Simulator runWithRoutines(boolean intrinsicsEnabled, boolean defineRoutines)
+            throws ParseException, SimulationException, SimulationInterruptedException {
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.setIntrinsicsEnabled(intrinsicsEnabled);
+        simulator.setAllowUndo(true);
+        simulator.addLine(new Line("move", new String[] { "$a0", "-1234" }));
+        simulator.addLine(new Line("alloc", new String[] { "$a1", "64" }));
+        simulator.addLine(new Line("call", new String[] { "itoa" }));
+        simulator.addLine(new Line("move", new String[] { "$t0", "$r0" }));
+        simulator.addLine(new Line("move", new String[] { "$a0", "$a1" }));
+        simulator.addLine(new Line("call", new String[] { "strlen" }));
+        simulator.addLine(new Line("move", new String[] { "$t1", "$r0" }));
+        simulator.addLine(new Line("call", new String[] { "atoi" }));
+        simulator.addLine(new Line("move", new String[] { "$t2", "$r0" }));
+        simulator.addLine(new Line("exit", new String[] {}));
+        if (defineRoutines) {
+            defineRoutines(simulator);
+        }
+        simulator.executeProgramFromPC();
+        return simulator;
+    }
+
+    private static void defineRoutines(Simulator simulator) throws ParseException {
+        simulator.addLine(new Line("strlen:", new String[] {}));
+        simulator.addLine(new Line("move", new String[] { "$r0", "99" }));
+        simulator.addLine(new Line("return", new String[] {}));
+        simulator.addLine(new Line("itoa:", new String[] {}));
+        simulator.addLine(new Line("return", new String[] {}));
+        simulator.addLine(new Line("atoi:", new String[] {}));
+        simulator.addLine(new Line("return", new String[] {}));
+    }
+
+    @Test
+    public void TestIntrinsicCalls() throws Exception {
+        Simulator simulator = runWithRoutines(true, false);
+        Registers registers = simulator.getRegisters();
+        assertEquals(5, registers.getRegister(Registers.T0).getLong());
+        assertEquals(5, registers.getRegister(Registers.T1).getLong());
+        assertEquals(-1234, registers.getRegister(Registers.T2).getLong());
+        assertEquals(simulator.getMemory().initialStackPointer(), registers.getRegister(Registers.SP).getLong());
+        assertEquals(0, registers.getRegister(Registers.RA).getLong());
+
+        int buffer = (int) registers.getRegister(Registers.A1).getLong();
+        assertEquals("-1234", simulator.getMemory().readString(buffer));
+        while (registers.getRegister(Registers.PC).getLong() > 3) {
+            simulator.undoLastTransformations();
+        }
+        assertEquals(0, registers.getRegister(Registers.T0).getLong());
+        simulator.undoLastTransformations();
+        assertEquals(0, registers.getRegister(Registers.R0).getLong());
+        assertNotEquals("-1234", simulator.getMemory().readString(buffer, 5));
+    }
+
+    @Test
+    public void TestIntrinsicsDisabled() throws Exception {
+        Simulator simulator = runWithRoutines(false, true);
+        assertEquals(99, simulator.getRegisters().getRegister(Registers.T1).getLong());
+    }
+
+    @Test
+    public void TestDefinedRoutinesOverrideIntrinsics() throws Exception {
+        Simulator simulator = runWithRoutines(true, true);
+        Registers registers = simulator.getRegisters();
+        assertEquals(0, registers.getRegister(Registers.T0).getLong());
+        assertEquals(99, registers.getRegister(Registers.T1).getLong());
+        assertEquals(99, registers.getRegister(Registers.T2).getLong());
+    }
+}
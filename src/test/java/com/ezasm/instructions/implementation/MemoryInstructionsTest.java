@@ -3,6 +3,8 @@ package com.ezasm.instructions.implementation;
 import com.ezasm.instructions.targets.inputoutput.DereferenceInputOutput;
 import com.ezasm.simulation.Registers;
 import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.WriteToReadOnlyException;
+import com.ezasm.simulation.transform.TransformationSequence;
 import com.ezasm.instructions.targets.input.IAbstractInput;
 import com.ezasm.instructions.targets.input.ImmediateInput;
 import com.ezasm.instructions.targets.inputoutput.IAbstractInputOutput;
@@ -11,7 +13,9 @@ import com.ezasm.simulation.Simulator;
 import com.ezasm.util.RawData;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class MemoryInstructionsTest {
 
@@ -71,4 +75,127 @@ public class MemoryInstructionsTest {
         assertEquals(2, loadOut.get(sim).intValue());
     }
 
+    @Test
+    public void TestMemcpyInstruction() throws SimulationException {
+        Simulator sim = new Simulator(8, 16);
+        MemoryInstructions mi = new MemoryInstructions(sim);
+        int base = sim.getMemory().initialHeapPointer();
+        for (int i = 0; i < 8; ++i) {
+            sim.getMemory().write(base + i, new RawData(new byte[] { (byte) i }));
+        }
+        RawData before = sim.getMemory().read(base, 12);
+
+        // Overlapping ranges copy as if through a temporary buffer
+        TransformationSequence copy = mi.memcpy(new ImmediateInput(new RawData(base + 2)),
+                new ImmediateInput(new RawData(base)), new ImmediateInput(new RawData(8)));
+        copy.apply();
+        assertArrayEquals(new byte[] { 0, 1, 0, 1, 2, 3, 4, 5, 6, 7 }, sim.getMemory().read(base, 10).data());
+
+        copy.invert().apply();
+        assertEquals(before, sim.getMemory().read(base, 12));
+    }
+
+    @Test
+    public void TestMemsetInstruction() throws SimulationException {
+        Simulator sim = new Simulator(8, 16);
+        MemoryInstructions mi = new MemoryInstructions(sim);
+        int base = sim.getMemory().initialHeapPointer();
+
+        mi.memset(new ImmediateInput(new RawData(base)), new ImmediateInput(new RawData(0x1FF)),
+                new ImmediateInput(new RawData(5))).apply();
+        assertArrayEquals(new byte[] { -1, -1, -1, -1, -1 }, sim.getMemory().read(base, 5).data());
+
+        assertThrows(WriteToReadOnlyException.class,
+                () -> mi.memset(new ImmediateInput(new RawData(sim.getMemory().initialTextPointer())),
+                        new ImmediateInput(new RawData(0)), new ImmediateInput(new RawData(1))));
+        assertThrows(SimulationException.class, () -> mi.memset(new ImmediateInput(new RawData(base)),
+                new ImmediateInput(new RawData(0)), new ImmediateInput(new RawData(-1))));
+    }
+
+    @Test
+    public void TestSubWordInstructions() throws SimulationException {
+        Simulator sim = new Simulator(8, 16);
+        MemoryInstructions mi = new MemoryInstructions(sim);
+        sim.getRegisters().getRegister(Registers.T0).setLong(sim.getMemory().initialHeapPointer());
+        IAbstractInputOutput t1 = new RegisterInputOutput(Registers.T1);
+
+        mi.storeh(new ImmediateInput(new RawData(0x1F0FE)), new DereferenceInputOutput(Registers.T0, 0)).apply();
+        mi.storeb(new ImmediateInput(new RawData(0x7F)), new DereferenceInputOutput(Registers.T0, 2)).apply();
+        assertArrayEquals(new byte[] { -16, -2, 0x7F },
+                sim.getMemory().read(sim.getMemory().initialHeapPointer(), 3).data());
+
+        mi.loadh(t1, new DereferenceInputOutput(Registers.T0, 0)).apply();
+        assertEquals(-3842, t1.get(sim).intValue());
+        mi.loadhu(t1, new DereferenceInputOutput(Registers.T0, 0)).apply();
+        assertEquals(0xF0FE, t1.get(sim).intValue());
+        mi.loadb(t1, new DereferenceInputOutput(Registers.T0, 1)).apply();
+        assertEquals(-2, t1.get(sim).intValue());
+        mi.loadbu(t1, new DereferenceInputOutput(Registers.T0, 1)).apply();
+        assertEquals(0xFE, t1.get(sim).intValue());
+    }
+
+    @Test
+    public void TestPackedStrings() throws SimulationException {
+        Simulator sim = new Simulator(8, 16);
+        sim.getMemory().setPackedStrings(true);
+        sim.getMemory().addStringImmediates(List.of("abc"));
+        int address = (int) sim.getMemory().getStringImmediateAddress("abc").intValue();
+
+        assertArrayEquals(new byte[] { 'a', 'b', 'c', 0 }, sim.getMemory().read(address, 4).data());
+        assertEquals("abc", sim.getMemory().readString(address));
+        assertEquals("ab", sim.getMemory().readString(address, 2));
+    }
+
+    @Test
+    public void TestFreeAndReallocInstructions() throws SimulationException {
+        Simulator sim = new Simulator(8, 1024);
+        MemoryInstructions mi = new MemoryInstructions(sim);
+        IAbstractInputOutput t0 = new RegisterInputOutput(Registers.T0);
+        IAbstractInputOutput t1 = new RegisterInputOutput(Registers.T1);
+        IAbstractInputOutput t2 = new RegisterInputOutput(Registers.T2);
+        int base = sim.getMemory().initialHeapPointer();
+
+        mi.alloc(t0, new ImmediateInput(new RawData(32))).apply();
+        mi.alloc(t1, new ImmediateInput(new RawData(64))).apply();
+        mi.alloc(t2, new ImmediateInput(new RawData(16))).apply();
+        assertEquals(base + 96, t2.get(sim).intValue());
+        assertEquals(112, sim.getHeap().getLiveBytes());
+
+        mi.free(t1).apply();
+        assertEquals(64, sim.getHeap().getFreeBytes());
+        mi.free(t0).apply();
+        assertEquals(96, sim.getHeap().getLargestFreeBlock());
+        assertThrows(SimulationException.class, () -> mi.free(t0));
+
+        TransformationSequence reuse = mi.alloc(t0, new ImmediateInput(new RawData(40)));
+        reuse.apply();
+        assertEquals(base, t0.get(sim).intValue());
+        assertEquals(56, sim.getHeap().getFreeBytes());
+        reuse.invert().apply();
+        assertEquals(96, sim.getHeap().getFreeBytes());
+        assertEquals(16, sim.getHeap().getLiveBytes());
+
+        // Freeing the last block returns all of the free memory to the heap pointer
+        mi.free(t2).apply();
+        assertEquals(0, sim.getHeap().getFreeBytes());
+        assertEquals(base, sim.getMemory().currentHeapPointer());
+        assertEquals(112, sim.getHeap().getPeakLiveBytes());
+
+        mi.alloc(t0, new ImmediateInput(new RawData(8))).apply();
+        mi.alloc(t1, new ImmediateInput(new RawData(8))).apply();
+        mi.store(new ImmediateInput(new RawData(1234)), new DereferenceInputOutput(Registers.T0, 0)).apply();
+        TransformationSequence moved = mi.realloc(t2, t0, new ImmediateInput(new RawData(24)));
+        moved.apply();
+        assertEquals(base + 16, t2.get(sim).intValue());
+        assertEquals(1234, sim.getMemory().read(base + 16).intValue());
+        assertEquals(0, sim.getHeap().sizeOf(base));
+        moved.invert().apply();
+        assertEquals(8, sim.getHeap().sizeOf(base));
+        assertEquals(base + 16, sim.getMemory().currentHeapPointer());
+
+        mi.realloc(t2, t1, new ImmediateInput(new RawData(100))).apply();
+        assertEquals(base + 8, t2.get(sim).intValue());
+        assertEquals(base + 108, sim.getMemory().currentHeapPointer());
+    }
+
 }
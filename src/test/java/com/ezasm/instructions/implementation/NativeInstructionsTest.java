@@ -0,0 +1,98 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.instructions.host.HostContext;
+import com.ezasm.instructions.host.HostFunction;
+import com.ezasm.instructions.host.HostFunctions;
+import com.ezasm.parsing.Line;
+import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeInstructionsTest {
+
+    public static class TestHostFunctions implements HostFunctions {
+
+        @HostFunction
+        public void sum(HostContext context, long address, long count) throws SimulationException {
+            long sum = 0;
+            for (int i = 0; i < count; ++i) {
+                sum += context.readWord((int) address + i * context.getWordSize());
+            }
+            context.setRegister(Registers.R0, sum);
+        }
+
+        @HostFunction
+        public void reverse(HostContext context, long address, long count) throws SimulationException {
+            int wordSize = context.getWordSize();
+            for (int i = 0, j = (int) count - 1; i < j; ++i, --j) {
+                long first = context.readWord((int) address + i * wordSize);
+                context.writeWord((int) address + i * wordSize, context.readWord((int) address + j * wordSize));
+                context.writeWord((int) address + j * wordSize, first);
+            }
+        }
+
+        @HostFunction
+        public void length(HostContext context, String string) throws SimulationException {
+            context.setRegister(Registers.R0, string.length());
+        }
+
+        @HostFunction
+        public void fail(HostContext context) throws SimulationException {
+            context.setRegister(Registers.T0, 1);
+            context.setRegister(Registers.PC, 0);
+        }
+    }
+
+    public static class InvalidHostFunctions implements HostFunctions {
+
+        @HostFunction
+        public void valid(HostContext context) {
+        }
+
+        @HostFunction
+        public long invalid(HostContext context) {
+            return 0;
+        }
+    }
+
+    @Test
+    public void TestHostFunctionCalls() throws Exception {
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.setAllowUndo(true);
+        simulator.addLine(new Line("values:", new String[] { ".word", "3", "1", "2" }));
+        simulator.addLine(new Line("native", new String[] { "\"sum\"", "values", "3" }));
+        simulator.addLine(new Line("move", new String[] { "$t0", "$r0" }));
+        simulator.addLine(new Line("native", new String[] { "\"reverse\"", "values", "3" }));
+        simulator.addLine(new Line("native", new String[] { "\"length\"", "\"hello\"" }));
+        simulator.executeProgramFromPC();
+
+        Registers registers = simulator.getRegisters();
+        int values = simulator.getDataLabelToAddress().get("values");
+        assertEquals(6, registers.getRegister(Registers.T0).getLong());
+        assertEquals(5, registers.getRegister(Registers.R0).getLong());
+        assertArrayEquals(new byte[] { 0, 0, 0, 2, 0, 0, 0, 1, 0, 0, 0, 3 },
+                simulator.getMemory().read(values, 12).data());
+
+        simulator.undoLastTransformations();
+        simulator.undoLastTransformations();
+        assertEquals(6, registers.getRegister(Registers.R0).getLong());
+        assertArrayEquals(new byte[] { 0, 0, 0, 3, 0, 0, 0, 1, 0, 0, 0, 2 },
+                simulator.getMemory().read(values, 12).data());
+    }
+
+    @Test
+    public void TestHostFunctionErrors() throws Exception {
+        assertThrows(ParseException.class, () -> new Line("native", new String[] { "\"missing\"" }));
+        assertThrows(ParseException.class, () -> new Line("native", new String[] { "\"valid\"" }));
+        assertThrows(ParseException.class, () -> new Line("native", new String[] { "\"length\"", "$t0" }));
+
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.addLine(new Line("native", new String[] { "\"fail\"" }));
+        assertThrows(SimulationException.class, simulator::executeProgramFromPC);
+        assertEquals(0, simulator.getRegisters().getRegister(Registers.T0).getLong());
+    }
+}
@@ -0,0 +1,114 @@
+package com.ezasm.instructions.implementation;
+
+import com.ezasm.parsing.Line;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.util.MappedFileStream;
+import com.ezasm.util.RawData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminalInstructionsTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedFileStream input;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private Simulator simulatorWithInput(String text) throws IOException {
+        File file = directory.resolve("input.txt").toFile();
+        Files.writeString(file.toPath(), text, StandardCharsets.ISO_8859_1);
+        input = new MappedFileStream(file);
+        TerminalInstructions.streams().setInputStream(input);
+        TerminalInstructions.streams().setOutputStream(output);
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.setAllowUndo(true);
+        return simulator;
+    }
+
+    private static long run(Simulator simulator, String instruction, String... arguments) throws Exception {
+        simulator.addLine(new Line(instruction, arguments));
+        simulator.executeLineFromPC();
+        return simulator.getRegisters().getRegister(Registers.T0).getLong();
+    }
+
+    @AfterEach
+    public void restoreStreams() {
+        TerminalInstructions.streams().setInputStream(TerminalInstructions.DEFAULT_INPUT_STREAM);
+        TerminalInstructions.streams().setOutputStream(TerminalInstructions.DEFAULT_OUTPUT_STREAM);
+        input.close();
+    }
+
+    @Test
+    public void testReadBytesUndo() throws Exception {
+        Simulator simulator = simulatorWithInput("abcdefgh");
+        int address = (int) run(simulator, "alloc", "$t0", "16");
+        byte[] before = simulator.getMemory().read(address, 4).data();
+
+        run(simulator, "readb", "$t0", "4");
+        assertArrayEquals("abcd".getBytes(StandardCharsets.ISO_8859_1), simulator.getMemory().read(address, 4).data());
+        assertEquals(4, TerminalInstructions.streams().getCursor());
+
+        simulator.undoLastTransformations();
+        assertArrayEquals(before, simulator.getMemory().read(address, 4).data());
+        assertEquals(0, TerminalInstructions.streams().getCursor());
+
+        simulator.executeLineFromPC();
+        assertArrayEquals("abcd".getBytes(StandardCharsets.ISO_8859_1), simulator.getMemory().read(address, 4).data());
+    }
+
+    @Test
+    public void testReadBytesPastEnd() throws Exception {
+        Simulator simulator = simulatorWithInput("abc");
+        run(simulator, "alloc", "$t0", "16");
+        assertThrows(SimulationException.class, () -> run(simulator, "readb", "$t0", "4"));
+    }
+
+    @Test
+    public void testWriteBytes() throws Exception {
+        Simulator simulator = simulatorWithInput("");
+        int address = (int) run(simulator, "alloc", "$t0", "8");
+        byte[] bytes = { 0, 'x', (byte) 0xFF, '\n', 7 };
+        simulator.getMemory().write(address, new RawData(bytes));
+
+        run(simulator, "writeb", "$t0", "5");
+        TerminalInstructions.streams().flushOutput();
+        assertArrayEquals(bytes, output.toByteArray());
+    }
+
+    @Test
+    public void testReadStrings() throws Exception {
+        Simulator simulator = simulatorWithInput("hello world\nsecond line\nthird line\n");
+        int address = (int) run(simulator, "alloc", "$t0", "64");
+        int wordSize = 4;
+        long guard = simulator.getMemory().read(address + 3 * wordSize).intValue();
+
+        // The maximum size includes the terminator
+        run(simulator, "reads", "$t0", "3");
+        assertEquals("he", simulator.getMemory().readString(address));
+        assertEquals(guard, simulator.getMemory().read(address + 3 * wordSize).intValue());
+
+        // A string shorter than the maximum is read whole
+        run(simulator, "reads", "$t0", "10");
+        assertEquals("world", simulator.getMemory().readString(address));
+
+        // Reading a word consumes the whitespace after it, and a line keeps its end-of-line character
+        run(simulator, "readln", "$t0");
+        assertEquals("second line\n", simulator.getMemory().readString(address));
+        run(simulator, "readln", "$t0", "5");
+        assertEquals("third", simulator.getMemory().readString(address));
+    }
+
+}
@@ -1,9 +1,14 @@
 package com.ezasm.parsing;
 
 import com.ezasm.instructions.InstructionDispatcher;
+import com.ezasm.simulation.Memory;
 import com.ezasm.simulation.Registers;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LexerTest {
@@ -74,6 +79,37 @@ class LexerTest {
         assertFalse(Lexer.looksLikeImmediate(""));
     }
 
+    @Test
+    void numericLiteralValues() {
+        assertEquals(123, NumericLiteral.parse("123").longValue());
+        assertEquals(-123, NumericLiteral.parse("-123").longValue());
+        assertEquals(0xABCDEF, NumericLiteral.parse("0xABCDEF").longValue());
+        assertEquals(-0b100101, NumericLiteral.parse("-0b100101").longValue());
+        assertEquals(Long.MIN_VALUE, NumericLiteral.parse("-9223372036854775808").longValue());
+        assertTrue(NumericLiteral.parse("123").isInteger());
+
+        // Integers too large for a long become floating point numbers
+        assertFalse(NumericLiteral.parse("9223372036854775808").isInteger());
+        assertEquals(9223372036854775808.0, NumericLiteral.parse("9223372036854775808").doubleValue());
+
+        // Decimal fractions are correctly rounded
+        assertEquals(0.1, NumericLiteral.parse("0.1").doubleValue());
+        assertEquals(123.456, NumericLiteral.parse("123.456").doubleValue());
+        assertEquals(-0.3, NumericLiteral.parse("-.3").doubleValue());
+        assertEquals(1.2345678901234567, NumericLiteral.parse("1.23456789012345678901234").doubleValue());
+        assertEquals(123.0, NumericLiteral.parse("123.").doubleValue());
+
+        assertEquals(0xABC + 0xDEF / 4096.0, NumericLiteral.parse("0xABC.DEF").doubleValue());
+        assertEquals(-9.25, NumericLiteral.parse("-0b1001.01").doubleValue());
+        // A mantissa of exactly Long.MIN_VALUE cannot be negated as a long
+        assertEquals(-922337203685477580.8, NumericLiteral.parse("-922337203685477580.8").doubleValue());
+
+        assertNull(NumericLiteral.parse(".123."));
+        assertNull(NumericLiteral.parse("-"));
+        assertNull(NumericLiteral.parse("0x"));
+        assertNull(NumericLiteral.parse("."));
+    }
+
     @Test
     void isCharacterImmediate() throws ParseException {
         assertTrue(Lexer.looksLikeCharacterImmediate("'a'"));
@@ -153,9 +189,54 @@ class LexerTest {
         });
     }
 
+    private static String generateProgram(int lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; ++i) {
+            switch (i % 4) {
+            case 0 -> sb.append("label").append(i).append(":\n");
+            case 1 -> sb.append("add $t0 $t1 ").append(i).append('\n');
+            case 2 -> sb.append("# comment\n");
+            default -> sb.append("prints \"line ").append(i).append("\"\n");
+            }
+        }
+        return sb.toString();
+    }
+
     @Test
-    void parseLines() {
-        // TODO
+    void parseLines() throws ParseException {
+        String program = generateProgram(Lexer.PARALLEL_PARSE_THRESHOLD + 5_000);
+        String[] split = program.split("\n");
+        List<Line> expected = new ArrayList<>();
+        for (int i = 0; i < split.length; ++i) {
+            Line line = Lexer.parseLine(split[i], i);
+            if (line != null) {
+                expected.add(line);
+            }
+        }
+
+        assertEquals(expected, Lexer.parseLines(program));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(expected, Lexer.parseLinesInParallel(program, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parseLinesInParallelReportsFirstError() {
+        String[] split = generateProgram(Lexer.PARALLEL_PARSE_THRESHOLD + 5_000).split("\n");
+        split[15_000] = "add $t0";
+        split[21_000] = "notaninstruction";
+        String program = String.join("\n", split);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ParseException e = assertThrows(ParseException.class, () -> Lexer.parseLinesInParallel(program, pool));
+            assertTrue(e.getMessage().startsWith("Line 15001:"));
+        } finally {
+            pool.shutdown();
+        }
     }
 
     @Test
@@ -195,4 +276,23 @@ class LexerTest {
         assertArrayEquals(Lexer.tokenizeLine("\" \\\" Hello, World! \\\" \""),
                 new String[] { "\" \\\" Hello, World! \\\" \"" });
     }
+
+    @Test
+    void parseDataDirectives() throws ParseException {
+        Line words = Lexer.parseLine("table: .word 1, 'a', 0x10", 0);
+        assertTrue(words.isData());
+        assertFalse(words.isLabel());
+        assertEquals("table", words.getData().label());
+        assertEquals(3 * Memory.getWordSize(), words.getData().size());
+
+        Line bytes = Lexer.parseLine(".bytes \"ab\", 0", 0);
+        assertNull(bytes.getData().label());
+        assertArrayEquals(new byte[] { 'a', 'b', 0 }, bytes.getData().data());
+
+        assertEquals(12, Lexer.parseLine("buffer: .space 12", 0).getData().size());
+        assertThrows(ParseException.class, () -> Lexer.parseLine("x: .word 1.5", 0));
+        assertThrows(ParseException.class, () -> Lexer.parseLine("x: .unknown 1", 0));
+        assertThrows(ParseException.class, () -> Lexer.parseLine("x: .word", 0));
+    }
+
 }
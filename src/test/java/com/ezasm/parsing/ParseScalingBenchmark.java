@@ -0,0 +1,75 @@
+package com.ezasm.parsing;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A manual benchmark of parsing a large generated program in parallel with 1 to N worker threads. It is not run as part
+ * of the test suite; run its main method directly to print the timings.
+ */
+public class ParseScalingBenchmark {
+
+    private static final int LINES = 500_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Generates a program with a mix of labels, instructions, immediates, string immediates, and comments.
+     *
+     * @param lines the number of lines to generate.
+     * @return the text of the generated program.
+     */
+    private static String generateProgram(int lines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; ++i) {
+            switch (i % 5) {
+            case 0 -> sb.append("label").append(i).append(":\n");
+            case 1 -> sb.append("add $t0 $t1 ").append(i).append('\n');
+            case 2 -> sb.append("move $fs0 ").append(i).append(".25 # comment\n");
+            case 3 -> sb.append("store 0x").append(Integer.toHexString(i)).append(" 8($sp)\n");
+            default -> sb.append("prints \"line ").append(i).append("\"\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the average time in milliseconds taken by the given parse.
+     *
+     * @param parse the parse to time.
+     * @return the average time in milliseconds.
+     * @throws ParseException if the program could not be parsed.
+     */
+    private static double time(ParseAction parse) throws ParseException {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            parse.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; ++i) {
+            parse.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    }
+
+    private interface ParseAction {
+        void run() throws ParseException;
+    }
+
+    public static void main(String[] args) throws ParseException {
+        String program = generateProgram(LINES);
+        System.out.printf("lines: %d%n", LINES);
+
+        double singleThreaded = 0;
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; ++threads) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double parallel = time(() -> Lexer.parseLinesInParallel(program, pool));
+            if (threads == 1) {
+                singleThreaded = parallel;
+            }
+            System.out.printf("threads: %2d  time: %8.1f ms  speedup: %.2fx%n", threads, parallel,
+                    singleThreaded / parallel);
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.ezasm.simulation;
+
+import com.ezasm.parsing.Line;
+import com.ezasm.simulation.exception.InvalidFileDescriptorException;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileDescriptorTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testLowestFreeDescriptor() throws SimulationException, IOException {
+        Files.writeString(directory.resolve("a.txt"), "1 2 3");
+        FileDescriptorTable files = new FileDescriptorTable();
+        assertEquals(3, files.open("a.txt", "r", directory));
+        assertEquals(4, files.open("a.txt", "r", directory));
+        files.close(3);
+        assertFalse(files.isOpen(3));
+        assertThrows(InvalidFileDescriptorException.class, () -> files.input(3));
+        assertEquals(3, files.open("a.txt", "r", directory));
+        files.closeAll();
+    }
+
+    @Test
+    public void testReopenRestoresPosition() throws SimulationException, SimulationInterruptedException, IOException {
+        Files.writeString(directory.resolve("a.txt"), "1 2 3");
+        FileDescriptorTable files = new FileDescriptorTable();
+        int fd = files.open("a.txt", "r", directory);
+        assertEquals(1, files.input(fd).readLong());
+        files.close(fd);
+        files.reopen(fd);
+        assertEquals(2, files.input(fd).readLong());
+        files.seek(fd, 0);
+        assertEquals(1, files.input(fd).readLong());
+        files.closeAll();
+    }
+
+    @Test
+    public void testUndoOpenOfClosedDescriptor() throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "111");
+        Files.writeString(directory.resolve("b.txt"), "222");
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.setAllowUndo(true);
+        simulator.addLines(
+                List.of(new Line("open", new String[] { "$t0", "\"a.txt\"", "\"r\"" }),
+                        new Line("close", new String[] { "$t0" }),
+                        new Line("open", new String[] { "$t1", "\"b.txt\"", "\"r\"" })),
+                directory.resolve("main.ez").toFile());
+        simulator.executeProgramFromPC();
+        assertEquals(3, simulator.getRegisters().getRegister(Registers.T1).getLong());
+
+        simulator.undoLastTransformations();
+        assertFalse(simulator.getFiles().isOpen(3));
+        simulator.undoLastTransformations();
+        assertEquals(111, simulator.getFiles().input(3).readLong());
+
+        simulator.undoLastTransformations();
+        assertFalse(simulator.getFiles().isOpen(3));
+        assertNull(simulator.getFiles().find(3));
+        simulator.resetAll();
+    }
+
+    @Test
+    public void testReadStringWithoutRoom() throws Exception {
+        Files.writeString(directory.resolve("a.txt"), "abc def ghi");
+        Simulator simulator = new Simulator(4, 1024);
+        simulator.addLines(List.of(new Line("open", new String[] { "$t0", "\"a.txt\"", "\"r\"" }),
+                new Line("alloc", new String[] { "$t1", "64" }), new Line("freads", new String[] { "$t0", "$t1", "0" }),
+                new Line("freads", new String[] { "$t0", "$t1", "3" })), directory.resolve("main.ez").toFile());
+        for (int i = 0; i < 2; ++i) {
+            simulator.executeLineFromPC();
+        }
+        int address = (int) simulator.getRegisters().getRegister(Registers.T1).getLong();
+        byte[] before = simulator.getMemory().read(address, 16).data();
+
+        // A maximum of 0 leaves no room for the terminator, so the word is consumed and nothing is written
+        simulator.executeLineFromPC();
+        assertArrayEquals(before, simulator.getMemory().read(address, 16).data());
+        simulator.executeLineFromPC();
+        assertEquals("de", simulator.getMemory().readString(address));
+        simulator.resetAll();
+    }
+
+    @Test
+    public void testWriteAndAppend() throws SimulationException, IOException {
+        FileDescriptorTable files = new FileDescriptorTable();
+        int fd = files.open("b.txt", "w", directory);
+        files.output(fd).write("abc");
+        files.close(fd);
+        fd = files.open("b.txt", "a", directory);
+        files.output(fd).write(42L);
+        files.closeAll();
+        assertEquals("abc42", Files.readString(directory.resolve("b.txt")));
+    }
+
+    @Test
+    public void testOutsideDirectory() {
+        FileDescriptorTable files = new FileDescriptorTable();
+        assertThrows(SimulationException.class, () -> files.open("../outside.txt", "w", directory));
+        assertThrows(SimulationException.class, () -> files.open("a.txt", "x", directory));
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.ezasm.simulation;
+
+import com.ezasm.simulation.exception.ReadOutOfBoundsException;
+import com.ezasm.simulation.exception.WriteOutOfBoundsException;
+import com.ezasm.simulation.exception.WriteToReadOnlyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryTest {
+
+    @Test
+    public void testReadOutOfBounds() throws Exception {
+        Memory memory = new Memory(4, 16);
+        int address = memory.initialHeapPointer();
+        assertEquals(8, memory.read(address, 8).data().length);
+        assertThrows(ReadOutOfBoundsException.class, () -> memory.read(address, Integer.MAX_VALUE));
+        assertThrows(ReadOutOfBoundsException.class, () -> memory.read(Integer.MAX_VALUE - 2, 4));
+        assertThrows(ReadOutOfBoundsException.class, () -> memory.read(address, -1));
+        assertThrows(ReadOutOfBoundsException.class, () -> memory.read(0, 4));
+    }
+
+    @Test
+    public void testPreload(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("data.bin");
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+        Files.write(file, data);
+        Memory memory = new Memory(4, 16);
+        int address = memory.currentHeapPointer();
+
+        // At the heap pointer, which moves past the data
+        assertEquals(data.length, memory.preload(address, file));
+        assertArrayEquals(data, memory.read(address, data.length).data());
+        assertEquals(address + data.length, memory.currentHeapPointer());
+
+        // At an explicit address beyond the heap pointer
+        assertEquals(data.length, memory.preload(address + 20, file));
+        assertArrayEquals(data, memory.read(address + 20, data.length).data());
+        assertEquals(address + 20 + data.length, memory.currentHeapPointer());
+
+        // Below the heap pointer, which does not move back
+        assertEquals(data.length, memory.preload(address + 4, file));
+        assertArrayEquals(data, memory.read(address + 4, data.length).data());
+        assertEquals(address + 20 + data.length, memory.currentHeapPointer());
+    }
+
+    @Test
+    public void testPreloadRejected(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("data.bin");
+        Files.write(file, new byte[8]);
+        Path large = directory.resolve("large.bin");
+        Files.write(large, new byte[100]);
+        Memory memory = new Memory(4, 16);
+        int address = memory.currentHeapPointer();
+
+        assertThrows(WriteToReadOnlyException.class, () -> memory.preload(address - 4, file));
+        assertThrows(WriteOutOfBoundsException.class, () -> memory.preload(address, large));
+        assertThrows(WriteOutOfBoundsException.class, () -> memory.preload(address + 60, file));
+        assertEquals(address, memory.currentHeapPointer());
+    }
+
+}
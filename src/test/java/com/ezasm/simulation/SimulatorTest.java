@@ -0,0 +1,51 @@
+package com.ezasm.simulation;
+
+import com.ezasm.parsing.Lexer;
+import com.ezasm.simulation.exception.SimulationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    @Test
+    public void testDataDirectives() throws Exception {
+        Simulator simulator = new Simulator(4, 1024);
+        int address = simulator.getMemory().currentHeapPointer();
+        simulator.addLines(Lexer.parseLines("""
+                table: .word 7, 8
+                name: .bytes "hi", 0
+                move $t0 table
+                move $t1 name
+                alloc $t2 4
+                """), new File("main.ez"));
+        assertEquals(7, simulator.getMemory().read(address).intValue());
+        assertEquals(8, simulator.getMemory().read(address + 4).intValue());
+        assertArrayEquals(new byte[] { 'h', 'i', 0 }, simulator.getMemory().read(address + 8, 3).data());
+        assertEquals(address + 11, simulator.getMemory().currentHeapPointer());
+
+        simulator.executeProgramFromPC();
+        Registers registers = simulator.getRegisters();
+        assertEquals(address, registers.getRegister(Registers.T0).getLong());
+        assertEquals(address + 8, registers.getRegister(Registers.T1).getLong());
+        assertEquals(address + 11, registers.getRegister(Registers.T2).getLong());
+    }
+
+    @Test
+    public void testImportedDataDirectivesRejected(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("data.ez"), "table: .word 1\n");
+        Simulator simulator = new Simulator(4, 1024);
+        int address = simulator.getMemory().currentHeapPointer();
+        simulator.addLines(Lexer.parseLines("import \"data.ez\"\n"), directory.resolve("main.ez").toFile());
+
+        assertThrows(SimulationException.class, simulator::executeProgramFromPC);
+        assertFalse(simulator.getDataLabelToAddress().containsKey("table"));
+        assertEquals(address, simulator.getMemory().currentHeapPointer());
+    }
+
+}
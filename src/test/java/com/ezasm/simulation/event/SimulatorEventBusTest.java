@@ -0,0 +1,85 @@
+package com.ezasm.simulation.event;
+
+import com.ezasm.parsing.Lexer;
+import com.ezasm.parsing.ParseException;
+import com.ezasm.simulation.Registers;
+import com.ezasm.simulation.Simulator;
+import com.ezasm.simulation.exception.SimulationException;
+import com.ezasm.simulation.exception.SimulationInterruptedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorEventBusTest {
+
+    private static class RecordingListener implements SimulatorListener {
+        final BitSet registers = new BitSet();
+        final List<long[]> memory = new ArrayList<>();
+        final List<Long> pcs = new ArrayList<>();
+        int finished = 0;
+
+        @Override
+        public void registersChanged(BitSet changed) {
+            registers.or(changed);
+        }
+
+        @Override
+        public void memoryWritten(int address, int length) {
+            memory.add(new long[] { address, length });
+        }
+
+        @Override
+        public void programCounterChanged(int fid, long pc) {
+            pcs.add(pc);
+        }
+
+        @Override
+        public void programFinished(boolean error) {
+            assertFalse(error);
+            ++finished;
+        }
+    }
+
+    @Test
+    public void listenerReceivesBatchedChanges()
+            throws ParseException, SimulationException, SimulationInterruptedException {
+        Simulator sim = new Simulator(8, 16);
+        RecordingListener listener = new RecordingListener();
+        sim.getEvents().addListener(listener, EnumSet.allOf(SimulatorEvent.class));
+
+        sim.addAnonymousLines(Lexer.parseLines("add $t0 $t0 1\nalloc $t1 8\nstore $t0 0($t1)"), "events.ez");
+        sim.executeProgramFromPC();
+
+        assertTrue(listener.registers.get(Registers.getRegisterNumber(Registers.T0)));
+        assertTrue(listener.registers.get(Registers.getRegisterNumber(Registers.T1)));
+        assertTrue(listener.registers.get(Registers.getRegisterNumber(Registers.PC)));
+        assertEquals(1, listener.memory.size());
+        assertEquals(sim.getRegisters().getRegister(Registers.T1).getLong(), listener.memory.get(0)[0]);
+        assertEquals(8, listener.memory.get(0)[1]);
+        assertEquals(List.of(1L, 2L, 3L), listener.pcs);
+        assertEquals(1, listener.finished);
+    }
+
+    @Test
+    public void unregisteredEventsAreNotRecorded()
+            throws ParseException, SimulationException, SimulationInterruptedException {
+        Simulator sim = new Simulator(8, 16);
+        RecordingListener listener = new RecordingListener();
+        sim.getEvents().addListener(listener, EnumSet.of(SimulatorEvent.PROGRAM_COUNTER_CHANGED));
+        assertFalse(sim.getEvents().isListening(SimulatorEvent.REGISTER_CHANGED));
+
+        sim.addAnonymousLines(Lexer.parseLines("add $t0 $t0 1"), "events.ez");
+        sim.executeProgramFromPC();
+        assertTrue(listener.registers.isEmpty());
+        assertEquals(List.of(1L), listener.pcs);
+
+        sim.getEvents().removeListener(listener);
+        assertFalse(sim.getEvents().isListening(SimulatorEvent.PROGRAM_COUNTER_CHANGED));
+    }
+
+}